@@ -86,6 +86,11 @@ class EventTicker extends BaseElement {
         return html`<span class="player">${event.seeker}</span> found
           <span class="player">${event.hider}</span> in ${placeSpan}.`;
       }
+      case 'PLAYERS_DISCOVERED': {
+        const hiders = Object.keys(event.hiders ?? {}).join(', ');
+        return html`<span class="player">${event.seeker}</span> found
+          <span class="player">${hiders}</span> in ${placeSpan}.`;
+      }
       case 'SEEKER_MOVE': {
         return html`<span class="player">${event.seeker}</span> went to
           ${this.formatPlace(event.destination)}.`;
@@ -179,7 +179,7 @@ class MapView extends BaseElement {
   fetchData = async () => {
     try {
       const loc = await this.discovery.resolve('place');
-      const response = await fetch(`${loc}/places/`);
+      const response = await fetch(`${loc}/places?fields=name,coordinates`);
       this.places = await response?.json();
 
       this.coordinateConverter = new CoordinateConverter({
@@ -201,7 +201,9 @@ class MapView extends BaseElement {
     try {
       const location = await this.discovery.resolve('place');
 
-      const response = await fetch(`${location}/places/search?query=${name}`);
+      const response = await fetch(
+        `${location}/places/search?query=${name}&fields=name,coordinates`
+      );
       if (response.status === 200) {
         const newPlaces = await response?.json();
         if (newPlaces) {
@@ -296,7 +298,8 @@ class MapView extends BaseElement {
           ),
         }));
         break;
-      case 'PLAYER_DISCOVERED': {
+      case 'PLAYER_DISCOVERED':
+      case 'PLAYERS_DISCOVERED': {
         this.positions[event.place] = 'discovery';
         const hideout = this.hideouts.find(place => place.name === event.place);
         if (hideout) hideout.discovered = true;
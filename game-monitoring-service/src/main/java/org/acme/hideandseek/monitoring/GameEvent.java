@@ -47,10 +47,27 @@ public class GameEvent {
         this.seekerWon = Optional.empty();
     }
 
+    GameEvent(Kind kind, String gameId, String seeker, String hider, String place, Optional<Boolean> seekerWon,
+              OptionalLong duration, OptionalDouble distance, String destination, OptionalInt nonDiscoveredPlayers,
+              Map<String, String> hiders) {
+        this.kind = kind;
+        this.gameId = gameId;
+        this.seeker = seeker;
+        this.hider = hider;
+        this.place = place;
+        this.seekerWon = seekerWon;
+        this.duration = duration;
+        this.distance = distance;
+        this.destination = destination;
+        this.nonDiscoveredPlayers = nonDiscoveredPlayers;
+        this.hiders = hiders;
+    }
+
     public enum Kind {
         NEW_GAME,
         GAME_OVER,
         PLAYER_DISCOVERED,
+        PLAYERS_DISCOVERED,
         SEEKER_MOVE
     }
 }
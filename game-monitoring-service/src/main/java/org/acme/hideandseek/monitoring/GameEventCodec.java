@@ -0,0 +1,44 @@
+package org.acme.hideandseek.monitoring;
+
+import io.quarkus.redis.datasource.codecs.Codec;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+import jakarta.inject.Singleton;
+import org.acme.hideandseek.wire.GameEventPayload;
+import org.acme.hideandseek.wire.WireFormat;
+
+import java.lang.reflect.Type;
+import java.util.Optional;
+
+/**
+ * Reads the game events published by the game service, in JSON or in the binary encoding.
+ * Events are always written in JSON.
+ */
+@Singleton
+public class GameEventCodec implements Codec {
+
+    @Override
+    public boolean canHandle(Type clazz) {
+        return GameEvent.class.equals(clazz);
+    }
+
+    @Override
+    public byte[] encode(Object item) {
+        return Json.encodeToBuffer(item).getBytes();
+    }
+
+    @Override
+    public GameEvent decode(byte[] payload) {
+        if (!WireFormat.isBinary(payload)) {
+            return Json.decodeValue(Buffer.buffer(payload), GameEvent.class);
+        }
+        var fields = GameEventPayload.decode(payload);
+        Optional<Boolean> seekerWon = fields.nonDiscoveredPlayers().isPresent()
+                ? Optional.of(fields.nonDiscoveredPlayers().getAsInt() == 0) : Optional.empty();
+        // The kind is null for the pings, not relevant here
+        return new GameEvent(fields.kind(GameEvent.Kind.class), fields.gameId(), fields.seeker(), fields.hider(),
+                fields.place(), seekerWon, fields.duration(), fields.distance(), fields.destination(),
+                fields.nonDiscoveredPlayers(), fields.hiders());
+    }
+
+}
@@ -1,53 +1,87 @@
 package org.acme.hideandseek;
 
-import io.quarkus.redis.datasource.ReactiveRedisDataSource;
-import io.quarkus.redis.datasource.RedisDataSource;
 import io.smallrye.mutiny.Multi;
 import org.acme.hideandseek.actors.Game;
+import org.acme.hideandseek.actors.GameFactory;
+import org.acme.hideandseek.actors.GameRegistry;
+import org.acme.hideandseek.events.EventHub;
 import org.acme.hideandseek.model.GameEvent;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.resteasy.reactive.RestQuery;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
 
-import java.time.Duration;
+import java.util.List;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
 
 @RestController
 public class GameController {
 
-    private final PlayerRepository players;
-    private final PlaceRepository places;
-    private final RedisDataSource redis;
-    private final Multi<GameEvent> events;
+    private final SnapshotCache snapshots;
+    private final GameFactory factory;
+    private final GameRegistry registry;
+    private final EventHub hub;
 
-    @ConfigProperty(name = "hide-and-seek.game-duration", defaultValue = "10s")
-    Duration maxGameDuration;
+    @ConfigProperty(name = "hide-and-seek.batch.max-count", defaultValue = "10000")
+    int maxBatchCount;
 
-    public GameController(PlayerRepository players, PlaceRepository places,
-                          ReactiveRedisDataSource reactiveRedis,
-                          RedisDataSource redis) {
-        this.players = players;
-        this.places = places;
-        this.redis = redis;
-        this.events = Multi.createBy().merging().streams(
-                reactiveRedis.pubsub(GameEvent.class).subscribe("hide-and-seek/events"),
-                Multi.createFrom().ticks().every(Duration.ofSeconds(10)).map(x -> GameEvent.EMPTY)
-        );
+    public GameController(SnapshotCache snapshots, GameFactory factory, GameRegistry registry, EventHub hub) {
+        this.snapshots = snapshots;
+        this.factory = factory;
+        this.registry = registry;
+        this.hub = hub;
     }
 
     @PostMapping("/games")
     public String start() {
-        Game game = new Game(players.getAllPlayers(), places.getPlaceNames(),
-                redis, maxGameDuration);
+        var snapshot = snapshot();
+        Game game = factory.create(snapshot.players(), snapshot.places());
         return game.start();
     }
 
+    @PostMapping("/games/batch")
+    public List<String> startBatch(@RestQuery int count) {
+        if (count <= 0 || count > maxBatchCount) {
+            throw new ResponseStatusException(BAD_REQUEST, "The count must be between 1 and " + maxBatchCount);
+        }
+        var snapshot = snapshot();
+        return factory.startAll(count, snapshot.players(), snapshot.places());
+    }
+
+    private SnapshotCache.Snapshot snapshot() {
+        var snapshot = snapshots.current();
+        if (snapshot == null) {
+            throw new ResponseStatusException(SERVICE_UNAVAILABLE, "The players and places are not loaded yet");
+        }
+        return snapshot;
+    }
+
+    @GetMapping("/games/stats")
+    public GameRegistry.Stats getGameStats() {
+        return registry.getStats();
+    }
+
     @GetMapping("/games/events")
     @Produces(MediaType.SERVER_SENT_EVENTS)
     public Multi<GameEvent> getEvents() {
-        return events;
+        return hub.subscribe(null);
+    }
+
+    @GetMapping("/games/{id}/events")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public Multi<GameEvent> getGameEvents(String id) {
+        return hub.subscribe(id);
+    }
+
+    @GetMapping("/games/events/stats")
+    public EventHub.Stats getEventStats() {
+        return hub.getStats();
     }
 }
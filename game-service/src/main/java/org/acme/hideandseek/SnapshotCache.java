@@ -0,0 +1,76 @@
+package org.acme.hideandseek;
+
+import io.quarkus.redis.datasource.RedisDataSource;
+import io.quarkus.runtime.Startup;
+import org.acme.hideandseek.model.Player;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.Readiness;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Keeps the players and places in memory, so starting a game does not read Redis.
+ * <p>
+ * The snapshot is loaded in the background when the service starts, which is not ready until then. It is reloaded
+ * when the player or place service announces a change on {@code hide-and-seek/changes}, when Redis reports a write on
+ * the underlying keys (if keyspace notifications are enabled on the server, e.g. {@code notify-keyspace-events Kgh}),
+ * and every {@code hide-and-seek.snapshot.refresh-interval} in case a notification was missed.
+ */
+@Startup
+@Readiness
+public class SnapshotCache implements HealthCheck {
+
+    public static final String TOPIC_CHANGES = "hide-and-seek/changes";
+    private static final String PLAYERS_KEY = "hide-and-seek:players";
+    private static final String GEO_KEY = "hide-and-seek:geo";
+    private final static Logger LOGGER = Logger.getLogger("SnapshotCache");
+
+    private final PlayerRepository players;
+    private final PlaceRepository places;
+    private final Refresher<Snapshot> refresher;
+
+    /**
+     * @param version incremented on each reload
+     */
+    public record Snapshot(long version, List<Player> players, List<String> places) {
+    }
+
+    public SnapshotCache(RedisDataSource redis, PlayerRepository players, PlaceRepository places,
+                         @ConfigProperty(name = "hide-and-seek.snapshot.refresh-interval", defaultValue = "5m")
+                         Duration refreshInterval) {
+        this.players = players;
+        this.places = places;
+        this.refresher = new Refresher<>("players and places",
+                previous -> load(previous == null ? 1 : previous.version() + 1), refreshInterval, LOGGER);
+
+        redis.pubsub(String.class).subscribe(TOPIC_CHANGES, change -> refresher.invalidate());
+        redis.pubsub(String.class).subscribeToPatterns(
+                List.of("__keyspace@*__:" + PLAYERS_KEY, "__keyspace@*__:" + GEO_KEY),
+                operation -> refresher.invalidate());
+        refresher.start();
+    }
+
+    @Override
+    public HealthCheckResponse call() {
+        return HealthCheckResponse.named("snapshot").status(current() != null).build();
+    }
+
+    /**
+     * @return the latest snapshot, {@code null} until the first one is loaded
+     */
+    public Snapshot current() {
+        return refresher.current();
+    }
+
+    private Snapshot load(long version) {
+        var snapshot = new Snapshot(version, List.copyOf(players.getAllPlayers()), List.copyOf(places.getPlaceNames()));
+        LOGGER.infof("Loaded snapshot %d: %d players, %d places", version, snapshot.players().size(),
+                snapshot.places().size());
+        return snapshot;
+    }
+
+}
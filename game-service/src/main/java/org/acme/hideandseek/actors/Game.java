@@ -1,152 +1,216 @@
 package org.acme.hideandseek.actors;
 
-import io.quarkus.redis.datasource.RedisDataSource;
-import io.quarkus.redis.datasource.pubsub.PubSubCommands;
 import org.acme.hideandseek.model.Event;
 import org.acme.hideandseek.model.GameEvent;
 import org.acme.hideandseek.model.Player;
+import org.acme.hideandseek.transport.EventQueues;
 import org.jboss.logging.Logger;
 
-import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 
+/**
+ * A game, run as an actor.
+ * <p>
+ * A game has {@code hide-and-seek.game.seekers} seekers (1 by default). Each of them gets a region (a part of the
+ * places) to search, and the hiders are found by whichever seeker visits their place.
+ */
 public class Game implements Runnable {
 
     private final static Logger LOGGER = Logger.getLogger("Game");
     private final static String SEEKER_KEY = "hide-and-seek:seeker";
-    public static final String TOPIC_EVENTS = "hide-and-seek/events";
-    public final String gameId = UUID.randomUUID().toString();
-    private final PubSubCommands<GameEvent> events;
-    private final List<Hider> hiders = new ArrayList<>();
-    private final Player seeker;
-    private final RedisDataSource redis;
-    private final Duration maxGameDuration;
+    public final String gameId;
+    private final List<Hider> hiders;
+    private final HiderIndex hiderIndex;
+    private final List<Player> seekers;
+    private final GameContext context;
+    // Events routed to this game by the dispatcher
+    private final BlockingQueue<EventQueues.Delivery> mailbox = new LinkedBlockingQueue<>();
 
     private volatile boolean done;
+    // 0 until the game has started
     private volatile long begin;
 
-    public Game(Collection<Player> players, List<String> places, RedisDataSource redis, Duration maxGameDuration) {
-        // Redis objects
-        // to read from the "game" queue and write to the "seeker" queue.
-        this.redis = redis;
-        this.maxGameDuration = maxGameDuration;
-
-        // commands to broadcast events
-        this.events = redis.pubsub(GameEvent.class);
+    Game(Collection<Player> players, List<String> places, GameContext context) {
+        // The "game" queue is read by the dispatcher, the emitter writes to the "seeker" queue and broadcasts events.
+        this.context = context;
+        this.gameId = UUID.randomUUID().toString();
 
         LOGGER.infof("New game with %d players and %d places", players.size(), places.size());
         LOGGER.infof("Initializing game %s", gameId);
 
         List<Player> copy = new ArrayList<>(players);
-        Random random = new Random();
-        // Pick random seeker
-        int index = random.nextInt(copy.size() - 1);
-        this.seeker = copy.get(index);
+        // Pick random seekers, leaving at least one player to hide
+        int count = Math.max(1, Math.min(context.seekers(), copy.size() - 1));
+        Collections.shuffle(copy, new Random());
+        this.seekers = List.copyOf(copy.subList(0, count));
 
         // Others are going to hide
-        copy.remove(this.seeker);
+        copy.subList(0, count).clear();
+        this.hiders = new ArrayList<>();
         for (Player player : copy) {
             Hider hider = new Hider(player, places);
             this.hiders.add(hider);
         }
+        this.hiderIndex = new HiderIndex(hiders);
+    }
+
+    Game(String gameId, List<Player> seekers, List<Hider> hiders, long begin, GameContext context) {
+        // Restored from a checkpoint
+        this.context = context;
+        this.gameId = gameId;
+        this.seekers = seekers;
+        this.hiders = hiders;
+        this.hiderIndex = new HiderIndex(hiders);
+        this.begin = begin;
+        LOGGER.infof("Restoring game %s (%d hiders not yet found)", gameId, hiderIndex.undiscovered());
     }
 
     public String start() {
-        Thread.ofVirtual().start(this);
+        var batch = context.emitter().batch();
+        context.checkpoints().created(batch, gameId, seekers, hiders);
+        batch.flush();
+        if (!context.ownership().isAssignedHere(gameId)) {
+            // The replica owning the game will pick it up
+            LOGGER.infof("Game %s is handed over to its owner", gameId);
+            return gameId;
+        }
+        resume();
         return gameId;
     }
 
-    public void run() {
-        begin = System.currentTimeMillis();
+    /**
+     * Runs the game on this replica, if it can get the lease on it.
+     */
+    public void resume() {
+        if (!context.ownership().acquire(gameId, this::abandon)) {
+            LOGGER.infof("Game %s is already run by another replica", gameId);
+            return;
+        }
+        // Register before anything is sent, so no reply can be missed
+        context.dispatcher().register(this);
+        context.registry().started(gameId);
+        Thread.ofVirtual().start(this);
+    }
 
-        // Send game started event to the seeker
-        this.redis.list(Event.GameStartedEvent.class)
-                .rpush(SEEKER_KEY, new Event.GameStartedEvent(gameId, seeker));
-        this.events.publish(TOPIC_EVENTS,
-                GameEvent.newGame(gameId, seeker, hiders));
-        initTimesUp();
+    void deliver(EventQueues.Delivery delivery) {
+        mailbox.add(delivery);
+    }
+
+    /**
+     * Stops the game without emitting anything, another replica took it over.
+     */
+    void abandon() {
+        done = true;
+        context.registry().abandoned(gameId);
+    }
+
+    public void run() {
+        if (begin == 0) {
+            begin = System.currentTimeMillis();
+
+            // Send game started event to the seekers, each one searching its own region
+            var batch = context.emitter().batch();
+            for (int region = 0; region < seekers.size(); region++) {
+                batch.push(SEEKER_KEY, new Event.GameStartedEvent(gameId, seekers.get(region), region,
+                        seekers.size()));
+            }
+            batch.publish(GameEvent.newGame(gameId, seekers.get(0), hiderIndex.positions()));
+            context.checkpoints().started(batch, gameId, begin);
+            batch.flush();
+            context.scheduler().schedule(gameId, context.maxGameDuration());
+        }
 
         while (!done) {
-            // Actor-Style: Read messages from the game queue
-            var kv = redis.list(Event.class)
-                    .blpop(Duration.ofSeconds(1), "hide-and-seek:game");
-            if (kv != null) {
-                var event = kv.value;
-                if (event.gameId.equals(gameId)) {
-                    switch (event.kind) {
-                        case TIMES_UP -> onGameEnd();
-                        case SEEKER_AT_POSITION -> seekerAtPlace(event
-                                .as(Event.SeekerAtPositionEvent.class).place);
-                        case SEEKER_MOVE -> onSeekerMove(event
-                                .as(Event.SeekerMoveEvent.class));
+            // Actor-Style: Read messages from the mailbox
+            EventQueues.Delivery delivery;
+            try {
+                delivery = mailbox.poll(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (delivery != null) {
+                var event = delivery.event();
+                // Everything emitted while handling the event is sent in one go
+                var batch = context.emitter().batch();
+                switch (event.kind) {
+                    case TIMES_UP -> onGameEnd(batch, true);
+                    case SEEKER_AT_POSITION -> {
+                        var position = event.as(Event.SeekerAtPositionEvent.class);
+                        seekerAtPlace(batch, seeker(position.seeker), position.place);
                     }
+                    case SEEKER_MOVE -> onSeekerMove(batch, event
+                            .as(Event.SeekerMoveEvent.class));
                 }
+                batch.flush();
+                context.queues().ack(delivery);
             }
         }
 
-
+        context.dispatcher().unregister(this);
+        context.ownership().release(gameId);
     }
 
-    private void onSeekerMove(Event.SeekerMoveEvent event) {
+    private void onSeekerMove(GameEmitter.Batch batch, Event.SeekerMoveEvent event) {
         // Publish changes to the frontend
-        this.events.publish(TOPIC_EVENTS,
-                GameEvent.seekerMove(gameId, seeker, event.origin,
-                        event.destination, event.distance, event.duration));
+        batch.publish(GameEvent.seekerMove(gameId, seeker(event.seeker), event.origin,
+                event.destination, event.distance, event.duration));
     }
 
-    public void onGameEnd() {
+    private void onGameEnd(GameEmitter.Batch batch, boolean timesUp) {
         done = true;
+        context.registry().ended(gameId, timesUp);
+        context.scheduler().cancel(gameId);
         var duration = System.currentTimeMillis() - begin;
-        // Send the "end" event to the seeker
-        redis.list(Event.GameEndedEvent.class).rpush(SEEKER_KEY,
-                new Event.GameEndedEvent(gameId));
-
-        this.events.publish(TOPIC_EVENTS, GameEvent.gameOver(gameId, duration,
-                seeker, hiders));
-    }
-
-    public void seekerAtPlace(String place) {
-        for (Hider hider : hiders) {
-            if (hider.getPosition().equals(place)) {
-                this.events.publish(TOPIC_EVENTS,
-                        GameEvent.hiderDiscovered(gameId, seeker, hider, place));
-                hider.discovered();
-            }
-        }
-
-        int notYetFound = notYetFound();
-        if (notYetFound == 0) {
-            onGameEnd();
+        // Send the "end" event to the seekers, the hiding places only once so they are recorded once
+        var positions = hiderIndex.positions();
+        for (int i = 0; i < seekers.size(); i++) {
+            batch.push(SEEKER_KEY, new Event.GameEndedEvent(gameId, i == 0 ? positions : null));
         }
+        batch.publish(GameEvent.gameOver(gameId, duration,
+                seekers.get(0), positions, hiderIndex.discoverers(), hiderIndex.undiscovered()));
+        context.checkpoints().ended(batch, gameId);
+        context.dispatcher().ended(batch, gameId);
     }
 
-    private int notYetFound() {
-        int notYetFound = 0;
-        for (Hider hider : hiders) {
-            if (!hider.hasBeenDiscovered()) {
-                notYetFound++;
+    /**
+     * @param name the name of a seeker, {@code null} if it was not sent
+     * @return the seeker, the first one if unknown
+     */
+    private Player seeker(String name) {
+        for (Player seeker : seekers) {
+            if (seeker.name().equals(name)) {
+                return seeker;
             }
         }
-        return notYetFound;
+        return seekers.get(0);
     }
 
-    private void initTimesUp() {
-        Thread.ofVirtual().start(() -> {
-            try {
-                Thread.sleep(maxGameDuration);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+    private void seekerAtPlace(GameEmitter.Batch batch, Player seeker, String place) {
+        var found = hiderIndex.discover(place, seeker.name());
+        if (context.emitter().isCompoundDiscovery()) {
+            if (!found.isEmpty()) {
+                batch.publish(GameEvent.hidersDiscovered(gameId, seeker, found, place));
             }
-            if (!done) {
-                this.redis.list(Event.TimesUpEvent.class)
-                        .rpush("hide-and-seek:game", new Event.TimesUpEvent(gameId));
+        } else {
+            for (Hider hider : found) {
+                batch.publish(GameEvent.hiderDiscovered(gameId, seeker, hider, place));
             }
-        });
+        }
+        context.checkpoints().discovered(batch, gameId, found);
+
+        if (hiderIndex.undiscovered() == 0) {
+            onGameEnd(batch, false);
+        }
     }
 
 }
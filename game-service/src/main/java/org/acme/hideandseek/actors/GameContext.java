@@ -0,0 +1,15 @@
+package org.acme.hideandseek.actors;
+
+import org.acme.hideandseek.cluster.GameCheckpoints;
+import org.acme.hideandseek.cluster.GameOwnership;
+import org.acme.hideandseek.transport.EventQueues;
+
+import java.time.Duration;
+
+/**
+ * The services shared by all the game actors of the JVM.
+ */
+record GameContext(GameEmitter emitter, EventQueues queues, GameDispatcher dispatcher, TimesUpScheduler scheduler,
+                   GameOwnership ownership, GameCheckpoints checkpoints, GameRegistry registry,
+                   Duration maxGameDuration, int seekers) {
+}
@@ -0,0 +1,122 @@
+package org.acme.hideandseek.actors;
+
+import io.quarkus.runtime.Startup;
+import org.acme.hideandseek.cluster.GameOwnership;
+import org.acme.hideandseek.transport.EventQueues;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Owns the consumption of the game queue(s) and routes every event to the mailbox of the {@link Game} it belongs to.
+ * The game acknowledges the event once handled.
+ * <p>
+ * A single virtual thread reads Redis for all the games running in this JVM, so games never steal (and drop) each
+ * other's events, and the number of Redis consumers does not grow with the number of games.
+ * <p>
+ * When {@code hide-and-seek.game.per-game-keys} is enabled, each game also gets its own list
+ * ({@code hide-and-seek:game:<gameId>}). The shared list is always consumed, so producers that are not aware of
+ * the per-game keys keep working.
+ * <p>
+ * In cluster mode, per-game keys are always used: a replica only consumes the lists of the games it runs, and
+ * forwards the events read from the shared list to the list of their game.
+ */
+@Startup
+public class GameDispatcher implements Runnable {
+
+    public static final String GAME_KEY = "hide-and-seek:game";
+    private final static Logger LOGGER = Logger.getLogger("GameDispatcher");
+
+    private final EventQueues queues;
+    private final Map<String, Game> games = new ConcurrentHashMap<>();
+    private final GameOwnership ownership;
+    private final boolean perGameKeys;
+
+    public GameDispatcher(EventQueues queues, GameOwnership ownership,
+                          @ConfigProperty(name = "hide-and-seek.game.per-game-keys", defaultValue = "false")
+                          boolean perGameKeys) {
+        this.queues = queues;
+        this.ownership = ownership;
+        this.perGameKeys = perGameKeys || ownership.isEnabled();
+        LOGGER.infof("Starting game dispatcher (per-game keys: %s)", this.perGameKeys);
+        Thread.ofVirtual().start(this);
+    }
+
+    /**
+     * @param gameId the game id
+     * @return the Redis list on which the events for the given game must be pushed
+     */
+    public String keyFor(String gameId) {
+        if (perGameKeys) {
+            return GAME_KEY + ":" + gameId;
+        }
+        return GAME_KEY;
+    }
+
+    /**
+     * Deletes the list of a game once the game is over, if it has its own.
+     */
+    void ended(GameEmitter.Batch batch, String gameId) {
+        if (perGameKeys) {
+            batch.send(queues.deleteRequest(keyFor(gameId)));
+        }
+    }
+
+    void register(Game game) {
+        games.put(game.gameId, game);
+    }
+
+    void unregister(Game game) {
+        games.remove(game.gameId, game);
+    }
+
+    public boolean isRunningHere(String gameId) {
+        return games.containsKey(gameId);
+    }
+
+    public void run() {
+        while (true) {
+            try {
+                for (EventQueues.Delivery delivery : queues.read(Duration.ofSeconds(1), keys())) {
+                    dispatch(delivery);
+                }
+            } catch (Exception e) {
+                LOGGER.errorf(e, "Unable to read the game queues");
+            }
+        }
+    }
+
+    private String[] keys() {
+        if (!perGameKeys) {
+            return new String[]{GAME_KEY};
+        }
+        List<String> keys = new ArrayList<>(games.size() + 1);
+        keys.add(GAME_KEY);
+        for (String gameId : games.keySet()) {
+            keys.add(keyFor(gameId));
+        }
+        return keys.toArray(new String[0]);
+    }
+
+    private void dispatch(EventQueues.Delivery delivery) {
+        var event = delivery.event();
+        Game game = games.get(event.gameId);
+        if (game != null) {
+            game.deliver(delivery);
+            return;
+        }
+        if (GAME_KEY.equals(delivery.queue()) && ownership.isActive(event.gameId)) {
+            // Run by another replica
+            queues.push(keyFor(event.gameId), event);
+        } else {
+            LOGGER.debugf("Dropping %s event for unknown game %s", event.kind, event.gameId);
+        }
+        queues.ack(delivery);
+    }
+
+}
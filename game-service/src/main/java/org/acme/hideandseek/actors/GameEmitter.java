@@ -0,0 +1,95 @@
+package org.acme.hideandseek.actors;
+
+import io.vertx.mutiny.redis.client.Command;
+import io.vertx.mutiny.redis.client.Redis;
+import io.vertx.mutiny.redis.client.Request;
+import org.acme.hideandseek.model.Event;
+import org.acme.hideandseek.model.GameEvent;
+import org.acme.hideandseek.transport.EventQueues;
+import org.acme.hideandseek.transport.GameEventCodec;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends what the game actors emit.
+ * <p>
+ * Everything emitted during one actor step (queue pushes and published events) is collected in a {@link Batch} and
+ * written to Redis in a single pipeline, so a step costs one round trip whatever the number of discovered hiders.
+ */
+@Service
+public class GameEmitter {
+
+    public static final String TOPIC_EVENTS = "hide-and-seek/events";
+
+    private final Redis redis;
+    private final EventQueues queues;
+    private final GameEventCodec codec;
+
+    @ConfigProperty(name = "hide-and-seek.game.compound-discovery", defaultValue = "false")
+    boolean compoundDiscovery;
+
+    GameEmitter(Redis redis, EventQueues queues, GameEventCodec codec) {
+        this.redis = redis;
+        this.queues = queues;
+        this.codec = codec;
+    }
+
+    public Batch batch() {
+        return new Batch();
+    }
+
+    /**
+     * @return {@code true} if the hiders found at the same place are reported in a single
+     * {@code PLAYERS_DISCOVERED} event, {@code false} to send a {@code PLAYER_DISCOVERED} event per hider.
+     */
+    boolean isCompoundDiscovery() {
+        return compoundDiscovery;
+    }
+
+    public class Batch {
+
+        private final List<Request> requests = new ArrayList<>();
+
+        /**
+         * Pushes an event to a queue.
+         */
+        public Batch push(String key, Event event) {
+            requests.add(queues.pushRequest(key, event));
+            return this;
+        }
+
+        /**
+         * Broadcasts a game event to the frontend and the other services ({@code PUBLISH}).
+         */
+        public Batch publish(GameEvent event) {
+            requests.add(Request.cmd(Command.PUBLISH).arg(TOPIC_EVENTS).arg(codec.encode(event)));
+            return this;
+        }
+
+        /**
+         * Adds any other command to the batch.
+         */
+        public Batch send(Request request) {
+            requests.add(request);
+            return this;
+        }
+
+        /**
+         * Sends all the collected commands in one round trip.
+         */
+        public void flush() {
+            switch (requests.size()) {
+                case 0 -> {
+                    return;
+                }
+                case 1 -> redis.sendAndAwait(requests.get(0));
+                default -> redis.batchAndAwait(requests);
+            }
+            requests.clear();
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+package org.acme.hideandseek.actors;
+
+import org.acme.hideandseek.cluster.GameCheckpoints;
+import org.acme.hideandseek.cluster.GameOwnership;
+import org.acme.hideandseek.model.Player;
+import org.acme.hideandseek.transport.EventQueues;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Creates the game actors, either new ones or from a checkpoint.
+ */
+@Service
+public class GameFactory {
+
+    private final static Logger LOGGER = Logger.getLogger("GameFactory");
+
+    private final GameContext context;
+    // Shared by all the batches, so concurrent batches do not multiply the load on Redis
+    private final Semaphore starting;
+
+    GameFactory(GameEmitter emitter, EventQueues queues, GameDispatcher dispatcher, TimesUpScheduler scheduler,
+                GameOwnership ownership, GameCheckpoints checkpoints, GameRegistry registry,
+                @ConfigProperty(name = "hide-and-seek.game-duration", defaultValue = "10s")
+                Duration maxGameDuration,
+                @ConfigProperty(name = "hide-and-seek.batch.concurrency", defaultValue = "32")
+                int concurrency,
+                @ConfigProperty(name = "hide-and-seek.game.seekers", defaultValue = "1")
+                int seekers) {
+        this.context = new GameContext(emitter, queues, dispatcher, scheduler, ownership, checkpoints, registry,
+                maxGameDuration, seekers);
+        this.starting = new Semaphore(concurrency);
+    }
+
+    public Game create(Collection<Player> players, List<String> places) {
+        return new Game(players, places, context);
+    }
+
+    /**
+     * Creates and starts {@code count} games with the same players and places, at most
+     * {@code hide-and-seek.batch.concurrency} being started at the same time.
+     *
+     * @return the ids of the games, in creation order
+     */
+    public List<String> startAll(int count, Collection<Player> players, List<String> places) {
+        List<Game> games = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            games.add(create(players, places));
+        }
+        LOGGER.infof("Starting %d games", count);
+
+        List<Future<String>> started = new ArrayList<>(count);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Game game : games) {
+                started.add(executor.submit(() -> {
+                    starting.acquire();
+                    try {
+                        return game.start();
+                    } finally {
+                        starting.release();
+                    }
+                }));
+            }
+        }
+
+        List<String> ids = new ArrayList<>(count);
+        for (Future<String> future : started) {
+            try {
+                ids.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while starting the games", e);
+            } catch (ExecutionException e) {
+                // The others are running, report the failure but keep their ids
+                LOGGER.errorf(e.getCause(), "Unable to start a game");
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * @param gameId the game id
+     * @return the game rebuilt from its last checkpoint, {@code null} if there is no checkpoint
+     */
+    public Game restore(String gameId) {
+        return context.checkpoints().load(gameId)
+                .map(state -> {
+                    List<Hider> hiders = new ArrayList<>();
+                    for (GameCheckpoints.HiderState h : state.hiders()) {
+                        Hider hider = new Hider(h.player(), h.position());
+                        if (h.found()) {
+                            hider.discovered(h.foundBy());
+                        }
+                        hiders.add(hider);
+                    }
+                    return new Game(state.gameId(), state.seekers(), hiders, state.begin(), context);
+                })
+                .orElse(null);
+    }
+
+}
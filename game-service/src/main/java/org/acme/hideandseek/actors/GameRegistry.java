@@ -0,0 +1,49 @@
+package org.acme.hideandseek.actors;
+
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the games run by this JVM: the ones in progress, and how the others ended.
+ * In cluster mode, each replica only reports its own games.
+ */
+@Service
+public class GameRegistry {
+
+    private final Set<String> active = ConcurrentHashMap.newKeySet();
+    private final LongAdder finished = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    /**
+     * @param active   the games in progress
+     * @param finished the games that ended because every hider was found
+     * @param timedOut the games that ended because the time was up
+     */
+    public record Stats(int active, long finished, long timedOut) {
+    }
+
+    void started(String gameId) {
+        active.add(gameId);
+    }
+
+    void ended(String gameId, boolean timesUp) {
+        if (active.remove(gameId)) {
+            (timesUp ? timedOut : finished).increment();
+        }
+    }
+
+    /**
+     * The game is now run by another replica.
+     */
+    void abandoned(String gameId) {
+        active.remove(gameId);
+    }
+
+    public Stats getStats() {
+        return new Stats(active.size(), finished.sum(), timedOut.sum());
+    }
+
+}
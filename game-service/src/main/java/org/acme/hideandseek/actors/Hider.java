@@ -11,27 +11,46 @@ public class Hider {
     public final Player player;
     private final String position;
     private boolean found = false;
+    // The name of the seeker who found the hider, if known
+    private String foundBy;
 
     private final static Logger LOGGER = Logger.getLogger("Hider");
 
 
     public Hider(Player player, List<String> places) {
-        this.player = player;
         // Pick a random place.
-        Random random = new Random();
-        var idx = random.nextInt(places.size() -1);
-        this.position = places.get(idx);
+        this(player, places.get(new Random().nextInt(places.size() -1)));
         LOGGER.infof("%s is hiding at %s", player.name(), position);
     }
 
+    public Hider(Player player, String position) {
+        this.player = player;
+        this.position = position;
+    }
+
     public synchronized void discovered() {
         found = true;
     }
 
+    /**
+     * @param seeker the name of the seeker who found the hider
+     */
+    public synchronized void discovered(String seeker) {
+        foundBy = seeker;
+        discovered();
+    }
+
     public synchronized boolean hasBeenDiscovered() {
         return found;
     }
 
+    /**
+     * @return the name of the seeker who found the hider, {@code null} if not found or unknown
+     */
+    public synchronized String getFoundBy() {
+        return foundBy;
+    }
+
     public String getPosition() {
         return position;
     }
@@ -0,0 +1,74 @@
+package org.acme.hideandseek.actors;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the hiders by hiding place, with a running count of the hiders not yet discovered.
+ * <p>
+ * A seeker arrival only looks up the hiders of the visited place, so it costs the same in a game of 5 players and
+ * in a mass lobby of 100k players. Not thread-safe: it is only accessed by the game actor.
+ */
+class HiderIndex {
+
+    private final Map<String, List<Hider>> hidersByPlace = new HashMap<>();
+    // player name -> hiding place, sent with the NEW_GAME and GAME_OVER events
+    private final Map<String, String> positions;
+    // player name -> seeker who found them, sent with the GAME_OVER event
+    private final Map<String, String> discoverers = new HashMap<>();
+    private int undiscovered;
+
+    HiderIndex(List<Hider> hiders) {
+        Map<String, String> h = new HashMap<>();
+        for (Hider hider : hiders) {
+            h.put(hider.player.name(), hider.getPosition());
+            if (!hider.hasBeenDiscovered()) {
+                hidersByPlace.computeIfAbsent(hider.getPosition(), p -> new ArrayList<>()).add(hider);
+                undiscovered++;
+            } else if (hider.getFoundBy() != null) {
+                discoverers.put(hider.player.name(), hider.getFoundBy());
+            }
+        }
+        this.positions = Collections.unmodifiableMap(h);
+    }
+
+    /**
+     * Marks the hiders hiding at the given place as discovered.
+     *
+     * @param place  the place visited by the seeker
+     * @param seeker the name of the seeker
+     * @return the newly discovered hiders, empty if none
+     */
+    List<Hider> discover(String place, String seeker) {
+        // The seeker never needs to find the same hiders twice
+        List<Hider> found = hidersByPlace.remove(place);
+        if (found == null) {
+            return List.of();
+        }
+        for (Hider hider : found) {
+            hider.discovered(seeker);
+            discoverers.put(hider.player.name(), seeker);
+        }
+        undiscovered -= found.size();
+        return found;
+    }
+
+    int undiscovered() {
+        return undiscovered;
+    }
+
+    Map<String, String> positions() {
+        return positions;
+    }
+
+    /**
+     * @return the seeker who found each discovered hider
+     */
+    Map<String, String> discoverers() {
+        return Map.copyOf(discoverers);
+    }
+
+}
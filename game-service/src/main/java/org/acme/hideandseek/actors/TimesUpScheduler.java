@@ -0,0 +1,87 @@
+package org.acme.hideandseek.actors;
+
+import io.quarkus.redis.datasource.RedisDataSource;
+import io.quarkus.redis.datasource.sortedset.ScoreRange;
+import io.quarkus.redis.datasource.sortedset.SortedSetCommands;
+import io.quarkus.redis.datasource.sortedset.ZRangeArgs;
+import io.quarkus.runtime.Startup;
+import org.acme.hideandseek.model.Event;
+import org.acme.hideandseek.transport.EventQueues;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Schedules the {@code TIMES_UP} events of the games.
+ * <p>
+ * Timers are stored in a sorted set (member: game id, score: due time in ms), so they survive restarts and are
+ * shared by all the game-service replicas. Each JVM runs a single poller. An entry is claimed with {@code ZREM}:
+ * only the replica that actually removed it pushes the event.
+ */
+@Startup
+public class TimesUpScheduler implements Runnable {
+
+    public static final String KEY = "hide-and-seek:game:times-up";
+    private final static Logger LOGGER = Logger.getLogger("TimesUpScheduler");
+
+    private final SortedSetCommands<String, String> timers;
+    private final EventQueues queues;
+    private final GameDispatcher dispatcher;
+    private final Duration pollInterval;
+    private final int batchSize;
+
+    public TimesUpScheduler(RedisDataSource redis, EventQueues queues, GameDispatcher dispatcher,
+                            @ConfigProperty(name = "hide-and-seek.scheduler.poll-interval", defaultValue = "250ms")
+                            Duration pollInterval,
+                            @ConfigProperty(name = "hide-and-seek.scheduler.batch-size", defaultValue = "100")
+                            int batchSize) {
+        this.timers = redis.sortedSet(String.class);
+        this.queues = queues;
+        this.dispatcher = dispatcher;
+        this.pollInterval = pollInterval;
+        this.batchSize = batchSize;
+        LOGGER.infof("Starting times-up scheduler");
+        Thread.ofVirtual().start(this);
+    }
+
+    public void schedule(String gameId, Duration delay) {
+        timers.zadd(KEY, System.currentTimeMillis() + delay.toMillis(), gameId);
+    }
+
+    public void cancel(String gameId) {
+        timers.zrem(KEY, gameId);
+    }
+
+    public void run() {
+        while (true) {
+            try {
+                Thread.sleep(pollInterval);
+                // Drain everything that is due before sleeping again
+                while (fireDueTimers() == batchSize) {
+                    // continue
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                LOGGER.errorf(e, "Unable to poll the times-up timers");
+            }
+        }
+    }
+
+    private int fireDueTimers() {
+        List<String> due = timers.zrangebyscore(KEY,
+                ScoreRange.from(Double.NEGATIVE_INFINITY, (double) System.currentTimeMillis()),
+                new ZRangeArgs().limit(0, batchSize));
+        for (String gameId : due) {
+            // Claim the timer, another replica may have been faster
+            if (timers.zrem(KEY, gameId) == 1) {
+                queues.push(dispatcher.keyFor(gameId), new Event.TimesUpEvent(gameId));
+            }
+        }
+        return due.size();
+    }
+
+}
@@ -0,0 +1,124 @@
+package org.acme.hideandseek.cluster;
+
+import io.quarkus.redis.datasource.RedisDataSource;
+import io.vertx.core.json.Json;
+import io.vertx.mutiny.redis.client.Command;
+import io.vertx.mutiny.redis.client.Request;
+import org.acme.hideandseek.actors.GameEmitter;
+import org.acme.hideandseek.actors.Hider;
+import org.acme.hideandseek.model.Player;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Checkpoints the state of the games in Redis, so another replica can take over a game whose owner died.
+ * <p>
+ * A game is stored in two hashes: {@code hide-and-seek:game:state:<gameId>} (seekers, start time) and
+ * {@code hide-and-seek:game:state:<gameId>:hiders} (one field per hider). The writes are added to the batch of the
+ * current actor step, so checkpointing does not add round trips. Only active when the cluster mode is enabled.
+ */
+@Service
+public class GameCheckpoints {
+
+    public static final String STATE_PREFIX = "hide-and-seek:game:state:";
+
+    private final RedisDataSource redis;
+    private final GameOwnership ownership;
+
+    /**
+     * @param foundBy the name of the seeker who found the hider, {@code null} if not found
+     */
+    public record HiderState(Player player, String position, boolean found, String foundBy) {
+    }
+
+    public record State(String gameId, List<Player> seekers, long begin, List<HiderState> hiders) {
+
+        public boolean started() {
+            return begin > 0;
+        }
+    }
+
+    GameCheckpoints(RedisDataSource redis, GameOwnership ownership) {
+        this.redis = redis;
+        this.ownership = ownership;
+    }
+
+    /**
+     * Stores a new game, and marks it as active.
+     */
+    public void created(GameEmitter.Batch batch, String gameId, List<Player> seekers, Collection<Hider> hiders) {
+        if (!ownership.isEnabled()) {
+            return;
+        }
+        batch.send(Request.cmd(Command.HSET).arg(stateKey(gameId))
+                .arg("seekers").arg(Json.encode(seekers))
+                .arg("begin").arg(0));
+        var hset = Request.cmd(Command.HSET).arg(hidersKey(gameId));
+        for (Hider hider : hiders) {
+            hset.arg(hider.player.name()).arg(encode(hider));
+        }
+        batch.send(hset);
+        batch.send(Request.cmd(Command.SADD).arg(GameOwnership.ACTIVE_KEY).arg(gameId));
+    }
+
+    public void started(GameEmitter.Batch batch, String gameId, long begin) {
+        if (!ownership.isEnabled()) {
+            return;
+        }
+        batch.send(Request.cmd(Command.HSET).arg(stateKey(gameId)).arg("begin").arg(begin));
+    }
+
+    public void discovered(GameEmitter.Batch batch, String gameId, Collection<Hider> hiders) {
+        if (!ownership.isEnabled() || hiders.isEmpty()) {
+            return;
+        }
+        var hset = Request.cmd(Command.HSET).arg(hidersKey(gameId));
+        for (Hider hider : hiders) {
+            hset.arg(hider.player.name()).arg(encode(hider));
+        }
+        batch.send(hset);
+    }
+
+    public void ended(GameEmitter.Batch batch, String gameId) {
+        if (!ownership.isEnabled()) {
+            return;
+        }
+        batch.send(Request.cmd(Command.DEL).arg(stateKey(gameId)).arg(hidersKey(gameId)));
+        batch.send(Request.cmd(Command.SREM).arg(GameOwnership.ACTIVE_KEY).arg(gameId));
+    }
+
+    /**
+     * @param gameId the game id
+     * @return the last checkpoint of the game, empty if there is none
+     */
+    public Optional<State> load(String gameId) {
+        Map<String, String> state = redis.hash(String.class).hgetall(stateKey(gameId));
+        if (state.isEmpty()) {
+            return Optional.empty();
+        }
+        Map<String, HiderState> hiders = redis.hash(HiderState.class).hgetall(hidersKey(gameId));
+        List<Player> seekers = List.of(Json.decodeValue(state.get("seekers"), Player[].class));
+        return Optional.of(new State(gameId, seekers,
+                Long.parseLong(state.get("begin")),
+                new ArrayList<>(hiders.values())));
+    }
+
+    private static String encode(Hider hider) {
+        return Json.encode(new HiderState(hider.player, hider.getPosition(), hider.hasBeenDiscovered(),
+                hider.getFoundBy()));
+    }
+
+    private static String stateKey(String gameId) {
+        return STATE_PREFIX + gameId;
+    }
+
+    private static String hidersKey(String gameId) {
+        return STATE_PREFIX + gameId + ":hiders";
+    }
+
+}
@@ -0,0 +1,168 @@
+package org.acme.hideandseek.cluster;
+
+import io.quarkus.redis.datasource.RedisDataSource;
+import io.quarkus.redis.datasource.sortedset.ScoreRange;
+import io.quarkus.redis.datasource.sortedset.SortedSetCommands;
+import io.quarkus.runtime.Startup;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides which game-service replica runs which game.
+ * <p>
+ * Each replica heartbeats in a sorted set (member: replica id, score: last heartbeat). The live replicas form a
+ * {@link ConsistentHashRing} assigning each game to a replica. The replica running a game holds a lease on it
+ * ({@code hide-and-seek:game:lease:<gameId>}, a key with a TTL renewed on each heartbeat). When a replica dies, its
+ * leases expire and the games are taken over by their new owners.
+ * <p>
+ * Disabled by default ({@code hide-and-seek.cluster.enabled}): a single replica runs all the games it creates.
+ */
+@Startup
+public class GameOwnership implements Runnable {
+
+    public static final String REPLICAS_KEY = "hide-and-seek:game:replicas";
+    public static final String ACTIVE_KEY = "hide-and-seek:game:active";
+    public static final String LEASE_PREFIX = "hide-and-seek:game:lease:";
+
+    private static final String RENEW = """
+            if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end
+            """;
+    private static final String RELEASE = """
+            if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end
+            """;
+
+    private final static Logger LOGGER = Logger.getLogger("GameOwnership");
+
+    private final RedisDataSource redis;
+    private final SortedSetCommands<String, String> replicas;
+    private final boolean enabled;
+    private final String replicaId;
+    private final Duration leaseDuration;
+    private final Duration heartbeat;
+    // Leases held by this replica: game id -> callback invoked if the lease is lost
+    private final Map<String, Runnable> leases = new ConcurrentHashMap<>();
+    private volatile ConsistentHashRing ring = new ConsistentHashRing(Set.of());
+
+    public GameOwnership(RedisDataSource redis,
+                         @ConfigProperty(name = "hide-and-seek.cluster.enabled", defaultValue = "false")
+                         boolean enabled,
+                         @ConfigProperty(name = "hide-and-seek.cluster.replica-id")
+                         Optional<String> replicaId,
+                         @ConfigProperty(name = "hide-and-seek.cluster.lease-duration", defaultValue = "10s")
+                         Duration leaseDuration,
+                         @ConfigProperty(name = "hide-and-seek.cluster.heartbeat", defaultValue = "2s")
+                         Duration heartbeat) {
+        this.redis = redis;
+        this.replicas = redis.sortedSet(String.class);
+        this.enabled = enabled;
+        this.replicaId = replicaId.orElseGet(() -> UUID.randomUUID().toString());
+        this.leaseDuration = leaseDuration;
+        this.heartbeat = heartbeat;
+        if (enabled) {
+            LOGGER.infof("Starting game ownership for replica %s", this.replicaId);
+            heartbeat();
+            Thread.ofVirtual().start(this);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param gameId the game id
+     * @return {@code true} if the game is assigned to this replica
+     */
+    public boolean isAssignedHere(String gameId) {
+        if (!enabled) {
+            return true;
+        }
+        String owner = ring.owner(gameId);
+        return owner == null || owner.equals(replicaId);
+    }
+
+    /**
+     * Tries to take the lease on a game.
+     *
+     * @param gameId the game id
+     * @param onLost called if the lease cannot be renewed later on (the game must stop)
+     * @return {@code true} if this replica now holds the lease
+     */
+    public boolean acquire(String gameId, Runnable onLost) {
+        if (!enabled) {
+            return true;
+        }
+        var response = redis.execute("SET", LEASE_PREFIX + gameId, replicaId,
+                "NX", "PX", Long.toString(leaseDuration.toMillis()));
+        if (response == null) {
+            return false;
+        }
+        leases.put(gameId, onLost);
+        return true;
+    }
+
+    public void release(String gameId) {
+        if (!enabled) {
+            return;
+        }
+        leases.remove(gameId);
+        redis.execute("EVAL", RELEASE, "1", LEASE_PREFIX + gameId, replicaId);
+    }
+
+    public boolean isLeased(String gameId) {
+        return redis.key().exists(LEASE_PREFIX + gameId);
+    }
+
+    public boolean isActive(String gameId) {
+        return enabled && redis.set(String.class).sismember(ACTIVE_KEY, gameId);
+    }
+
+    public Set<String> activeGames() {
+        return redis.set(String.class).smembers(ACTIVE_KEY);
+    }
+
+    public void run() {
+        while (true) {
+            try {
+                Thread.sleep(heartbeat);
+                heartbeat();
+                renewLeases();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                LOGGER.errorf(e, "Unable to heartbeat");
+            }
+        }
+    }
+
+    private void heartbeat() {
+        long now = System.currentTimeMillis();
+        replicas.zadd(REPLICAS_KEY, now, replicaId);
+        // Forget the replicas that missed their heartbeats for as long as a lease
+        replicas.zremrangebyscore(REPLICAS_KEY,
+                ScoreRange.from(Double.NEGATIVE_INFINITY, (double) (now - leaseDuration.toMillis())));
+        ring = new ConsistentHashRing(replicas.zrange(REPLICAS_KEY, 0, -1));
+    }
+
+    private void renewLeases() {
+        for (Map.Entry<String, Runnable> lease : leases.entrySet()) {
+            var renewed = redis.execute("EVAL", RENEW, "1", LEASE_PREFIX + lease.getKey(), replicaId,
+                    Long.toString(leaseDuration.toMillis()));
+            if (renewed == null || renewed.toInteger() == 0) {
+                LOGGER.warnf("Lost the lease on game %s", lease.getKey());
+                if (leases.remove(lease.getKey(), lease.getValue())) {
+                    lease.getValue().run();
+                }
+            }
+        }
+    }
+
+}
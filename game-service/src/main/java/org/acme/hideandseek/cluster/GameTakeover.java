@@ -0,0 +1,68 @@
+package org.acme.hideandseek.cluster;
+
+import io.quarkus.runtime.Startup;
+import org.acme.hideandseek.actors.Game;
+import org.acme.hideandseek.actors.GameDispatcher;
+import org.acme.hideandseek.actors.GameFactory;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+
+/**
+ * Periodically looks for the active games assigned to this replica that nobody runs (their owner died, or they
+ * were created by another replica), and resumes them from their checkpoint.
+ */
+@Startup
+public class GameTakeover implements Runnable {
+
+    private final static Logger LOGGER = Logger.getLogger("GameTakeover");
+
+    private final GameOwnership ownership;
+    private final GameDispatcher dispatcher;
+    private final GameFactory factory;
+    private final Duration interval;
+
+    public GameTakeover(GameOwnership ownership, GameDispatcher dispatcher, GameFactory factory,
+                        @ConfigProperty(name = "hide-and-seek.cluster.heartbeat", defaultValue = "2s")
+                        Duration interval) {
+        this.ownership = ownership;
+        this.dispatcher = dispatcher;
+        this.factory = factory;
+        this.interval = interval;
+        if (ownership.isEnabled()) {
+            Thread.ofVirtual().start(this);
+        }
+    }
+
+    public void run() {
+        while (true) {
+            try {
+                Thread.sleep(interval);
+                takeOver();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                LOGGER.errorf(e, "Unable to take over orphan games");
+            }
+        }
+    }
+
+    private void takeOver() {
+        for (String gameId : ownership.activeGames()) {
+            if (dispatcher.isRunningHere(gameId) || !ownership.isAssignedHere(gameId)
+                    || ownership.isLeased(gameId)) {
+                continue;
+            }
+            Game game = factory.restore(gameId);
+            if (game == null) {
+                // Ended in the meantime
+                continue;
+            }
+            LOGGER.infof("Taking over game %s", gameId);
+            game.resume();
+        }
+    }
+
+}
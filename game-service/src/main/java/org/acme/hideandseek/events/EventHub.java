@@ -0,0 +1,87 @@
+package org.acme.hideandseek.events;
+
+import io.quarkus.redis.datasource.RedisDataSource;
+import io.quarkus.runtime.Startup;
+import io.smallrye.mutiny.Multi;
+import org.acme.hideandseek.actors.GameEmitter;
+import org.acme.hideandseek.model.GameEvent;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Broadcasts the game events to the SSE clients.
+ * <p>
+ * A single Redis subscription feeds all the clients. Each client can filter the events of one game, and gets a
+ * bounded buffer: when a client falls behind, its pending {@code SEEKER_MOVE} events are conflated (only the latest
+ * move of a game is kept), and the {@link OverflowPolicy} applies once that is not enough.
+ */
+@Startup
+public class EventHub {
+
+    private final static Logger LOGGER = Logger.getLogger("EventHub");
+
+    private final Set<HubSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder conflated = new LongAdder();
+    private final int bufferSize;
+    private final OverflowPolicy overflowPolicy;
+
+    public record Stats(int subscribers, long dropped, long conflated) {
+    }
+
+    public EventHub(RedisDataSource redis,
+                    @ConfigProperty(name = "hide-and-seek.events.buffer-size", defaultValue = "256")
+                    int bufferSize,
+                    @ConfigProperty(name = "hide-and-seek.events.overflow", defaultValue = "drop-oldest")
+                    String overflowPolicy,
+                    @ConfigProperty(name = "hide-and-seek.events.ping-interval", defaultValue = "10s")
+                    Duration pingInterval) {
+        this.bufferSize = bufferSize;
+        this.overflowPolicy = OverflowPolicy.valueOf(overflowPolicy.toUpperCase().replace('-', '_'));
+        redis.pubsub(GameEvent.class).subscribe(GameEmitter.TOPIC_EVENTS, this::broadcast);
+        // Keep the connections alive
+        Multi.createFrom().ticks().every(pingInterval)
+                .subscribe().with(x -> broadcast(GameEvent.EMPTY));
+        LOGGER.infof("Broadcasting game events (buffer: %d, overflow: %s)", bufferSize, this.overflowPolicy);
+    }
+
+    /**
+     * @param gameId the game to follow, {@code null} to receive the events of every game
+     * @return the stream of events
+     */
+    public Multi<GameEvent> subscribe(String gameId) {
+        return Multi.createFrom().publisher(subscriber -> {
+            var subscription = new HubSubscription(this, subscriber, gameId, bufferSize, overflowPolicy);
+            subscriptions.add(subscription);
+            subscriber.onSubscribe(subscription);
+        });
+    }
+
+    public Stats getStats() {
+        return new Stats(subscriptions.size(), dropped.sum(), conflated.sum());
+    }
+
+    private void broadcast(GameEvent event) {
+        for (HubSubscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    void remove(HubSubscription subscription) {
+        subscriptions.remove(subscription);
+    }
+
+    void dropped() {
+        dropped.increment();
+    }
+
+    void conflated() {
+        conflated.increment();
+    }
+
+}
@@ -0,0 +1,160 @@
+package org.acme.hideandseek.events;
+
+import org.acme.hideandseek.model.GameEvent;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The link between the {@link EventHub} and one client: a bounded buffer drained according to the client demand.
+ * <p>
+ * The client is only called from the drain loop, errors included: they are recorded with the buffer, and signaled by
+ * whichever thread drains next.
+ */
+final class HubSubscription implements Flow.Subscription {
+
+    private final EventHub hub;
+    private final Flow.Subscriber<? super GameEvent> downstream;
+    private final String gameId;
+    private final int capacity;
+    private final OverflowPolicy policy;
+    private final ArrayDeque<GameEvent> buffer = new ArrayDeque<>();
+    // Guarded by the buffer, signaled instead of the pending events
+    private Throwable error;
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile boolean cancelled;
+
+    HubSubscription(EventHub hub, Flow.Subscriber<? super GameEvent> downstream, String gameId, int capacity,
+                    OverflowPolicy policy) {
+        this.hub = hub;
+        this.downstream = downstream;
+        this.gameId = gameId;
+        this.capacity = capacity;
+        this.policy = policy;
+    }
+
+    void offer(GameEvent event) {
+        // Pings have no game id, everyone gets them
+        if (cancelled || (gameId != null && event.gameId != null && !gameId.equals(event.gameId))) {
+            return;
+        }
+        boolean overflow = false;
+        synchronized (buffer) {
+            if (buffer.size() < capacity) {
+                buffer.add(event);
+            } else if (event.kind == GameEvent.Kind.SEEKER_MOVE && removePendingMove(event.gameId)) {
+                hub.conflated();
+                buffer.add(event);
+            } else {
+                hub.dropped();
+                switch (policy) {
+                    case DROP_OLDEST -> {
+                        buffer.poll();
+                        buffer.add(event);
+                    }
+                    case DROP_NEWEST -> {
+                        // Ignore the event
+                    }
+                    case DISCONNECT -> overflow = true;
+                }
+            }
+        }
+        if (overflow) {
+            fail(new IllegalStateException("Too slow, " + capacity + " events are pending"));
+            return;
+        }
+        drain();
+    }
+
+    private void fail(Throwable failure) {
+        synchronized (buffer) {
+            if (error == null) {
+                error = failure;
+                buffer.clear();
+            }
+        }
+        cancel();
+        drain();
+    }
+
+    private boolean removePendingMove(String game) {
+        // Only the last move of a game matters to a client that is late
+        Iterator<GameEvent> iterator = buffer.iterator();
+        while (iterator.hasNext()) {
+            GameEvent pending = iterator.next();
+            if (pending.kind == GameEvent.Kind.SEEKER_MOVE && Objects.equals(pending.gameId, game)) {
+                iterator.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            fail(new IllegalArgumentException("Invalid request: " + n));
+            return;
+        }
+        requested.accumulateAndGet(n, (current, add) -> {
+            long sum = current + add;
+            return sum < 0 ? Long.MAX_VALUE : sum;
+        });
+        drain();
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        hub.remove(this);
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            // Another thread is draining, it will see the new events or demand
+            return;
+        }
+        int missed = 1;
+        do {
+            if (terminate()) {
+                // wip is never released, nothing is sent after the error
+                return;
+            }
+            long demand = requested.get();
+            long emitted = 0;
+            while (emitted != demand && !cancelled) {
+                GameEvent next;
+                synchronized (buffer) {
+                    next = buffer.poll();
+                }
+                if (next == null) {
+                    break;
+                }
+                downstream.onNext(next);
+                emitted++;
+            }
+            if (emitted != 0 && demand != Long.MAX_VALUE) {
+                requested.addAndGet(-emitted);
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private boolean terminate() {
+        Throwable failure;
+        synchronized (buffer) {
+            failure = error;
+        }
+        if (failure == null) {
+            return false;
+        }
+        downstream.onError(failure);
+        return true;
+    }
+
+}
@@ -0,0 +1,19 @@
+package org.acme.hideandseek.events;
+
+/**
+ * What to do when the buffer of a slow subscriber is full (and the event cannot be conflated).
+ */
+public enum OverflowPolicy {
+    /**
+     * Drop the oldest buffered event, to make room for the new one.
+     */
+    DROP_OLDEST,
+    /**
+     * Drop the new event.
+     */
+    DROP_NEWEST,
+    /**
+     * Terminate the stream with a failure, the client is expected to reconnect.
+     */
+    DISCONNECT
+}
@@ -5,6 +5,8 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 
+import java.util.Map;
+
 @JsonIgnoreProperties(ignoreUnknown = true)
 @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS)
 @JsonSubTypes({
@@ -35,19 +37,37 @@ public class Event {
     public static class GameStartedEvent extends Event {
 
         public final Player seeker;
+        // The part of the places searched by this seeker, when the game has several seekers
+        public final int region;
+        public final int regions;
 
-        @JsonCreator
         public GameStartedEvent(String gameId, Player seeker) {
+            this(gameId, seeker, 0, 1);
+        }
+
+        @JsonCreator
+        public GameStartedEvent(String gameId, Player seeker, int region, int regions) {
             super(Kind.GAME_STARTED, gameId);
             this.seeker = seeker;
+            this.region = region;
+            // Sent by a game service not aware of regions
+            this.regions = Math.max(regions, 1);
         }
     }
 
     public static class GameEndedEvent extends Event {
 
-        @JsonCreator
+        // The hiding place of each hider, only sent to one of the seekers, which records them
+        public final Map<String, String> hiders;
+
         public GameEndedEvent(String gameId) {
+            this(gameId, null);
+        }
+
+        @JsonCreator
+        public GameEndedEvent(String gameId, Map<String, String> hiders) {
             super(Kind.GAME_ENDED, gameId);
+            this.hiders = hiders;
         }
     }
 
@@ -63,24 +83,40 @@ public class Event {
         public final String destination;
         public final long duration;
         public final double distance;
+        // The name of the seeker, null when sent by an older seeker (the game then credits its first seeker)
+        public final String seeker;
 
-        @JsonCreator
         public SeekerMoveEvent(String gameId, String origin, String destination, long duration, double distance) {
+            this(gameId, origin, destination, duration, distance, null);
+        }
+
+        @JsonCreator
+        public SeekerMoveEvent(String gameId, String origin, String destination, long duration, double distance,
+                               String seeker) {
             super(Kind.SEEKER_MOVE, gameId);
             this.origin = origin;
             this.destination = destination;
             this.duration = duration;
             this.distance = distance;
+            this.seeker = seeker;
         }
     }
 
     public static class SeekerAtPositionEvent extends Event {
 
         public final String place;
-        @JsonCreator
+        // The name of the seeker, null when sent by an older seeker (the game then credits its first seeker)
+        public final String seeker;
+
         public SeekerAtPositionEvent(String gameId, String place) {
+            this(gameId, place, null);
+        }
+
+        @JsonCreator
+        public SeekerAtPositionEvent(String gameId, String place, String seeker) {
             super(Kind.SEEKER_AT_POSITION, gameId);
             this.place = place;
+            this.seeker = seeker;
         }
     }
 
@@ -12,6 +12,7 @@ import java.util.OptionalDouble;
 import java.util.OptionalInt;
 import java.util.OptionalLong;
 
+import static org.acme.hideandseek.model.GameEvent.Kind.PLAYERS_DISCOVERED;
 import static org.acme.hideandseek.model.GameEvent.Kind.PLAYER_DISCOVERED;
 import static org.acme.hideandseek.model.GameEvent.Kind.SEEKER_MOVE;
 
@@ -43,6 +44,10 @@ public class GameEvent {
     @JsonInclude(JsonInclude.Include.NON_NULL)
     public final Map<String, String> hiders;
 
+    // The seeker who found each discovered hider, on game over (a game can have several seekers)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public final Map<String, String> discoverers;
+
     public GameEvent() {
         this.kind = null;
         this.gameId = null;
@@ -52,17 +57,25 @@ public class GameEvent {
         this.destination = null;
         this.distance = OptionalDouble.empty();
         this.hiders = null;
+        this.discoverers = null;
         this.nonDiscoveredPlayers = OptionalInt.empty();
         this.duration = OptionalLong.empty();
         this.seekerWon = Optional.empty();
     }
 
-    private GameEvent(Kind kind, String gameId, String seeker, String hider, Map<String, String> hiders, String place, String destination, double distance, long duration, int nonDiscoveredPlayers) {
+    public GameEvent(Kind kind, String gameId, String seeker, String hider, Map<String, String> hiders, String place, String destination, double distance, long duration, int nonDiscoveredPlayers) {
+        this(kind, gameId, seeker, hider, hiders, null, place, destination, distance, duration, nonDiscoveredPlayers);
+    }
+
+    public GameEvent(Kind kind, String gameId, String seeker, String hider, Map<String, String> hiders,
+                     Map<String, String> discoverers, String place, String destination, double distance,
+                     long duration, int nonDiscoveredPlayers) {
         this.kind = kind;
         this.gameId = gameId;
         this.seeker = seeker;
         this.hider = hider;
         this.hiders = hiders;
+        this.discoverers = discoverers;
         this.place = place;
         this.destination = destination;
         if (distance > 0) {
@@ -84,20 +97,20 @@ public class GameEvent {
         }
     }
 
-    public static GameEvent newGame(String gameId, Player seeker, List<Hider> hiders) {
-        Map<String, String> h = new HashMap<>();
-        hiders.forEach(hider -> h.put(hider.player.name(), hider.getPosition()));
+    public static GameEvent newGame(String gameId, Player seeker, Map<String, String> hiders) {
         return new GameEvent(GameEvent.Kind.NEW_GAME, gameId,
                 seeker.name(), null,
-                h, null, null, 0.0, 0, -1);
+                hiders, null, null, 0.0, 0, -1);
     }
 
-    public static GameEvent gameOver(String gameId, long duration, Player seeker, List<Hider> hiders) {
-        Map<String, String> h = new HashMap<>();
-        hiders.forEach(hider -> h.put(hider.player.name(), hider.getPosition()));
-        int sum = hiders.stream().mapToInt(hider -> hider.hasBeenDiscovered() ? 0 : 1).sum();
+    /**
+     * @param seeker      the first seeker
+     * @param discoverers the seeker who found each discovered hider
+     */
+    public static GameEvent gameOver(String gameId, long duration, Player seeker, Map<String, String> hiders,
+                                     Map<String, String> discoverers, int nonDiscoveredPlayers) {
         return new GameEvent(Kind.GAME_OVER, gameId,
-                seeker.name(), null, h, null, null, 0.0, duration, sum);
+                seeker.name(), null, hiders, discoverers, null, null, 0.0, duration, nonDiscoveredPlayers);
     }
 
     public static GameEvent hiderDiscovered(String gameId, Player seeker, Hider hider, String place) {
@@ -105,6 +118,13 @@ public class GameEvent {
                 seeker.name(), hider.player.name(), null, place, null, 0.0, 0, -1);
     }
 
+    public static GameEvent hidersDiscovered(String gameId, Player seeker, List<Hider> hiders, String place) {
+        Map<String, String> h = new HashMap<>();
+        hiders.forEach(hider -> h.put(hider.player.name(), place));
+        return new GameEvent(PLAYERS_DISCOVERED, gameId,
+                seeker.name(), null, h, place, null, 0.0, 0, -1);
+    }
+
     public static GameEvent seekerMove(String gameId, Player seeker, String place, String destination, double distance, long duration) {
         return new GameEvent(SEEKER_MOVE, gameId,
                 seeker.name(), null, null, place, destination, distance, duration, -1);
@@ -114,6 +134,8 @@ public class GameEvent {
         NEW_GAME,
         GAME_OVER,
         PLAYER_DISCOVERED,
+        // All the hiders found at the same place, in the hiders map
+        PLAYERS_DISCOVERED,
         SEEKER_MOVE,
 
         PING,
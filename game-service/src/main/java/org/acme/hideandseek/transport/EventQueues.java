@@ -0,0 +1,54 @@
+package org.acme.hideandseek.transport;
+
+import io.vertx.mutiny.redis.client.Request;
+import org.acme.hideandseek.model.Event;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The queues carrying the {@link Event}s between the game and the seekers.
+ * <p>
+ * Selected with {@code hide-and-seek.transport}:
+ * <ul>
+ *     <li>{@code list} (default) - Redis lists, one {@code BLPOP} per event, no acknowledgement</li>
+ *     <li>{@code stream} - Redis streams read by a consumer group, in batches, acknowledged once handled</li>
+ * </ul>
+ */
+public interface EventQueues {
+
+    /**
+     * An event read from a queue.
+     *
+     * @param queue the queue
+     * @param id    the id of the entry, {@code null} if the transport does not need acknowledgements
+     * @param event the event
+     */
+    record Delivery(String queue, String id, Event event) {
+    }
+
+    /**
+     * Reads the next events from the given queues, waiting at most {@code timeout}.
+     *
+     * @return the events read, empty if none arrived in time
+     */
+    List<Delivery> read(Duration timeout, String... queues);
+
+    /**
+     * Acknowledges an event once handled. Events not acknowledged are delivered again.
+     */
+    void ack(Delivery delivery);
+
+    void push(String queue, Event event);
+
+    /**
+     * @return the request pushing the event, to be sent in a batch
+     */
+    Request pushRequest(String queue, Event event);
+
+    /**
+     * @return the request deleting a queue, to be sent in a batch
+     */
+    Request deleteRequest(String queue);
+
+}
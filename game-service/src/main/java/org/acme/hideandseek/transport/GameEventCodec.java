@@ -0,0 +1,60 @@
+package org.acme.hideandseek.transport;
+
+import io.quarkus.redis.datasource.codecs.Codec;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+import jakarta.inject.Singleton;
+import org.acme.hideandseek.model.GameEvent;
+import org.acme.hideandseek.wire.GameEventPayload;
+import org.acme.hideandseek.wire.WireFormat;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.lang.reflect.Type;
+
+/**
+ * Encodes the {@link GameEvent}s published on {@code hide-and-seek/events}.
+ * <p>
+ * Like the {@link EventCodec}, {@code hide-and-seek.codec} selects what is written, and both encodings are read.
+ * The leaderboard and monitoring services read both as well. The binary layout is the {@link GameEventPayload}.
+ */
+@Singleton
+public class GameEventCodec implements Codec {
+
+    private final boolean binary;
+
+    public GameEventCodec(@ConfigProperty(name = "hide-and-seek.codec", defaultValue = "json") String codec) {
+        this.binary = "binary".equals(codec);
+    }
+
+    @Override
+    public boolean canHandle(Type clazz) {
+        return GameEvent.class.equals(clazz);
+    }
+
+    @Override
+    public byte[] encode(Object item) {
+        if (!binary) {
+            return Json.encodeToBuffer(item).getBytes();
+        }
+        GameEvent event = (GameEvent) item;
+        return new GameEventPayload(event.kind.name(), event.gameId, event.seeker, event.hider, event.place,
+                event.destination, event.hiders, event.distance, event.duration, event.nonDiscoveredPlayers,
+                event.discoverers).encode();
+    }
+
+    @Override
+    public GameEvent decode(byte[] payload) {
+        if (!WireFormat.isBinary(payload)) {
+            return Json.decodeValue(Buffer.buffer(payload), GameEvent.class);
+        }
+        var fields = GameEventPayload.decode(payload);
+        GameEvent.Kind kind = fields.kind(GameEvent.Kind.class);
+        if (kind == null) {
+            throw new IllegalArgumentException("Unknown game event kind " + fields.kind());
+        }
+        return new GameEvent(kind, fields.gameId(), fields.seeker(), fields.hider(), fields.hiders(),
+                fields.discoverers(), fields.place(), fields.destination(), fields.distance().orElse(0.0),
+                fields.duration().orElse(0), fields.nonDiscoveredPlayers().orElse(-1));
+    }
+
+}
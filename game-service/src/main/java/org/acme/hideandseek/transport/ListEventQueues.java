@@ -0,0 +1,56 @@
+package org.acme.hideandseek.transport;
+
+import io.quarkus.redis.datasource.RedisDataSource;
+import io.quarkus.redis.datasource.list.KeyValue;
+import io.quarkus.redis.datasource.list.ListCommands;
+import io.vertx.mutiny.redis.client.Command;
+import io.vertx.mutiny.redis.client.Request;
+import org.acme.hideandseek.model.Event;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Queues backed by Redis lists: events are popped one by one, and lost if the consumer crashes before handling them.
+ */
+class ListEventQueues implements EventQueues {
+
+    private final ListCommands<String, Event> lists;
+
+    private final EventCodec codec;
+
+    ListEventQueues(RedisDataSource redis, EventCodec codec) {
+        this.lists = redis.list(Event.class);
+        this.codec = codec;
+    }
+
+    @Override
+    public List<Delivery> read(Duration timeout, String... queues) {
+        KeyValue<String, Event> kv = lists.blpop(timeout, queues);
+        if (kv == null) {
+            return List.of();
+        }
+        return List.of(new Delivery(kv.key, null, kv.value));
+    }
+
+    @Override
+    public void ack(Delivery delivery) {
+        // Already removed from the list
+    }
+
+    @Override
+    public void push(String queue, Event event) {
+        lists.rpush(queue, event);
+    }
+
+    @Override
+    public Request pushRequest(String queue, Event event) {
+        return Request.cmd(Command.RPUSH).arg(queue).arg(codec.encode(event));
+    }
+
+    @Override
+    public Request deleteRequest(String queue) {
+        return Request.cmd(Command.DEL).arg(queue);
+    }
+
+}
@@ -0,0 +1,149 @@
+package org.acme.hideandseek.transport;
+
+import io.quarkus.redis.datasource.RedisDataSource;
+import io.quarkus.redis.datasource.stream.StreamCommands;
+import io.quarkus.redis.datasource.stream.StreamMessage;
+import io.quarkus.redis.datasource.stream.XAddArgs;
+import io.quarkus.redis.datasource.stream.XGroupCreateArgs;
+import io.quarkus.redis.datasource.stream.XReadGroupArgs;
+import io.vertx.mutiny.redis.client.Command;
+import io.vertx.mutiny.redis.client.Request;
+import org.acme.hideandseek.model.Event;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Queues backed by Redis streams and a consumer group.
+ * <p>
+ * Events are read in batches ({@code XREADGROUP ... COUNT}) and acknowledged ({@code XACK}) once handled. Entries
+ * left pending by a crashed consumer are claimed again ({@code XAUTOCLAIM}) after {@code claim-after}, so the
+ * delivery is at-least-once. Streams are trimmed to about {@code max-length} entries.
+ */
+class StreamEventQueues implements EventQueues {
+
+    // Distinct keys, so switching transport never hits a key of the wrong type
+    private static final String SUFFIX = ":stream";
+    private static final String FIELD = "event";
+    private final static Logger LOGGER = Logger.getLogger("StreamEventQueues");
+
+    private final StreamCommands<String, String, Event> streams;
+    private final String group;
+    private final String consumer;
+    private final int batchSize;
+    private final long maxLength;
+    private final Duration claimAfter;
+    private final EventCodec codec;
+    private final Set<String> groups = ConcurrentHashMap.newKeySet();
+    private volatile long lastClaim = System.currentTimeMillis();
+
+    StreamEventQueues(RedisDataSource redis, String group, String consumer, int batchSize, long maxLength,
+                      Duration claimAfter, EventCodec codec) {
+        this.streams = redis.stream(Event.class);
+        this.group = group;
+        this.consumer = consumer;
+        this.batchSize = batchSize;
+        this.maxLength = maxLength;
+        this.claimAfter = claimAfter;
+        this.codec = codec;
+        LOGGER.infof("Reading the event streams as %s in group %s", consumer, group);
+    }
+
+    @Override
+    public List<Delivery> read(Duration timeout, String... queues) {
+        List<Delivery> deliveries = new ArrayList<>();
+        if (System.currentTimeMillis() - lastClaim > claimAfter.toMillis()) {
+            lastClaim = System.currentTimeMillis();
+            for (String queue : queues) {
+                claim(queue, deliveries);
+            }
+            if (!deliveries.isEmpty()) {
+                return deliveries;
+            }
+        }
+
+        Map<String, String> offsets = new LinkedHashMap<>();
+        for (String queue : queues) {
+            ensureGroup(queue);
+            // Only the entries never delivered to the group
+            offsets.put(key(queue), ">");
+        }
+        var messages = streams.xreadgroup(group, consumer, offsets,
+                new XReadGroupArgs().count(batchSize).block(timeout));
+        for (StreamMessage<String, String, Event> message : messages) {
+            add(deliveries, message);
+        }
+        return deliveries;
+    }
+
+    @Override
+    public void ack(Delivery delivery) {
+        streams.xack(key(delivery.queue()), group, delivery.id());
+    }
+
+    @Override
+    public void push(String queue, Event event) {
+        streams.xadd(key(queue), new XAddArgs().maxlen(maxLength).nearlyExactTrimming(), Map.of(FIELD, event));
+    }
+
+    @Override
+    public Request pushRequest(String queue, Event event) {
+        return Request.cmd(Command.XADD).arg(key(queue)).arg("MAXLEN").arg("~").arg(maxLength).arg("*")
+                .arg(FIELD).arg(codec.encode(event));
+    }
+
+    @Override
+    public Request deleteRequest(String queue) {
+        groups.remove(queue);
+        return Request.cmd(Command.DEL).arg(key(queue));
+    }
+
+    private void claim(String queue, List<Delivery> deliveries) {
+        ensureGroup(queue);
+        var claimed = streams.xautoclaim(key(queue), group, consumer, claimAfter, "0-0", batchSize);
+        for (StreamMessage<String, String, Event> message : claimed.getMessages()) {
+            LOGGER.infof("Claimed pending entry %s of %s", message.id(), queue);
+            add(deliveries, message);
+        }
+    }
+
+    private void add(List<Delivery> deliveries, StreamMessage<String, String, Event> message) {
+        Event event = message.payload().get(FIELD);
+        if (event == null) {
+            // Malformed entry, never deliver it again
+            streams.xack(message.key(), group, message.id());
+            return;
+        }
+        deliveries.add(new Delivery(queue(message.key()), message.id(), event));
+    }
+
+    private void ensureGroup(String queue) {
+        if (groups.contains(queue)) {
+            return;
+        }
+        try {
+            streams.xgroupCreate(key(queue), group, "0", new XGroupCreateArgs().mkstream());
+        } catch (Exception e) {
+            if (e.getMessage() == null || !e.getMessage().contains("BUSYGROUP")) {
+                throw e;
+            }
+            // The group already exists
+        }
+        groups.add(queue);
+    }
+
+    private static String key(String queue) {
+        return queue + SUFFIX;
+    }
+
+    private static String queue(String key) {
+        return key.substring(0, key.length() - SUFFIX.length());
+    }
+
+}
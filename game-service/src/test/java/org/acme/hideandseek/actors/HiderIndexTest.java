@@ -0,0 +1,111 @@
+package org.acme.hideandseek.actors;
+
+import org.acme.hideandseek.model.Player;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+class HiderIndexTest {
+
+    @Test
+    void testDiscovery() {
+        var hiders = List.of(hider("roxanne", "Paris"), hider("suzie", "Paris"), hider("clement", "London"));
+        var index = new HiderIndex(hiders);
+        Assertions.assertEquals(3, index.undiscovered());
+        Assertions.assertEquals("London", index.positions().get("clement"));
+
+        Assertions.assertTrue(index.discover("Rome", "seeker").isEmpty());
+        Assertions.assertEquals(3, index.undiscovered());
+
+        Assertions.assertEquals(2, index.discover("Paris", "seeker").size());
+        Assertions.assertEquals(1, index.undiscovered());
+        Assertions.assertTrue(hiders.get(0).hasBeenDiscovered());
+        Assertions.assertFalse(hiders.get(2).hasBeenDiscovered());
+
+        // Visiting the same place again does not find anyone
+        Assertions.assertTrue(index.discover("Paris", "seeker").isEmpty());
+        Assertions.assertEquals(1, index.undiscovered());
+
+        index.discover("London", "other-seeker");
+        Assertions.assertEquals(0, index.undiscovered());
+        Assertions.assertEquals(Map.of("roxanne", "seeker", "suzie", "seeker", "clement", "other-seeker"),
+                index.discoverers());
+        // Positions are kept for the game over event
+        Assertions.assertEquals(3, index.positions().size());
+    }
+
+    @Test
+    void testAlreadyDiscoveredHidersAreNotIndexed() {
+        var found = hider("roxanne", "Paris");
+        found.discovered("clement");
+        var index = new HiderIndex(List.of(found, hider("suzie", "Paris")));
+        Assertions.assertEquals(1, index.undiscovered());
+        // Restored from a checkpoint, the seeker who found the hider is kept
+        Assertions.assertEquals("clement", index.discoverers().get("roxanne"));
+        Assertions.assertEquals(1, index.discover("Paris", "seeker").size());
+    }
+
+    @Test
+    void testArrivalOnlyLooksAtTheHidersOfThePlace() {
+        List<CountingHider> hiders = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            hiders.add(new CountingHider("player-" + i, "place-" + (i % 5_000)));
+        }
+        var index = new HiderIndex(new ArrayList<>(hiders));
+        hiders.forEach(CountingHider::reset);
+
+        Assertions.assertTrue(index.discover("nowhere", "seeker").isEmpty());
+        Assertions.assertEquals(0, hiders.stream().mapToInt(CountingHider::reads).sum());
+
+        Assertions.assertEquals(2, index.discover("place-42", "seeker").size());
+        // Only the two hiders of the place have been read, whatever the number of hiders
+        Assertions.assertEquals(2, hiders.stream().filter(hider -> hider.reads() > 0).count());
+        Assertions.assertTrue(hiders.get(42).hasBeenDiscovered());
+        Assertions.assertTrue(hiders.get(5_042).hasBeenDiscovered());
+        Assertions.assertEquals(9_998, index.undiscovered());
+    }
+
+    // Counts the accesses to the hider, to check which hiders an arrival looks at
+    private static class CountingHider extends Hider {
+
+        private int reads;
+
+        CountingHider(String name, String place) {
+            super(new Player(name, name, null, 10), place);
+        }
+
+        @Override
+        public synchronized void discovered() {
+            reads++;
+            super.discovered();
+        }
+
+        @Override
+        public synchronized boolean hasBeenDiscovered() {
+            reads++;
+            return super.hasBeenDiscovered();
+        }
+
+        @Override
+        public String getPosition() {
+            reads++;
+            return super.getPosition();
+        }
+
+        int reads() {
+            return reads;
+        }
+
+        void reset() {
+            reads = 0;
+        }
+    }
+
+    private static Hider hider(String name, String place) {
+        return new Hider(new Player(name, name, null, 10), place);
+    }
+
+}
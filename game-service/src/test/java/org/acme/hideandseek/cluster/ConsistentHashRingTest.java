@@ -0,0 +1,44 @@
+package org.acme.hideandseek.cluster;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+class ConsistentHashRingTest {
+
+    @Test
+    void testEmptyRing() {
+        Assertions.assertNull(new ConsistentHashRing(List.of()).owner("game"));
+    }
+
+    @Test
+    void testGamesAreSpreadOverTheReplicas() {
+        var ring = new ConsistentHashRing(List.of("a", "b", "c"));
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 30_000; i++) {
+            counts.merge(ring.owner(UUID.randomUUID().toString()), 1, Integer::sum);
+        }
+        Assertions.assertEquals(3, counts.size());
+        for (int count : counts.values()) {
+            Assertions.assertTrue(count > 5_000, "Unbalanced ring: " + counts);
+        }
+    }
+
+    @Test
+    void testOnlyTheGamesOfARemovedReplicaMove() {
+        var before = new ConsistentHashRing(List.of("a", "b", "c"));
+        var after = new ConsistentHashRing(List.of("a", "b"));
+        for (int i = 0; i < 10_000; i++) {
+            String game = UUID.randomUUID().toString();
+            String owner = before.owner(game);
+            if (!owner.equals("c")) {
+                Assertions.assertEquals(owner, after.owner(game));
+            }
+        }
+    }
+
+}
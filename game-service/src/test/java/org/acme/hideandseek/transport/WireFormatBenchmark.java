@@ -0,0 +1,82 @@
+package org.acme.hideandseek.transport;
+
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import io.quarkus.redis.datasource.codecs.Codec;
+import io.vertx.core.json.jackson.DatabindCodec;
+import org.acme.hideandseek.model.Event;
+import org.acme.hideandseek.model.GameEvent;
+import org.acme.hideandseek.model.Player;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Compares the size and the encode/decode time of the JSON and binary codecs.
+ * Not part of the unit tests, run it with:
+ * {@code mvn -pl game-service test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.acme.hideandseek.transport.WireFormatBenchmark}
+ */
+public class WireFormatBenchmark {
+
+    private static final int ITERATIONS = 20_000;
+    private static final String GAME = "3f1c0a52-4c1e-4d55-9f0e-6a4d3b0c7e21";
+    private static final Player SEEKER = new Player("1", "clement", "clement.png", 10);
+
+    public static void main(String[] args) {
+        // Done by Quarkus in the application
+        DatabindCodec.mapper().registerModule(new Jdk8Module());
+
+        var json = new EventCodec("json");
+        var binary = new EventCodec("binary");
+        var jsonGameEvents = new GameEventCodec("json");
+        var binaryGameEvents = new GameEventCodec("binary");
+
+        report("SEEKER_MOVE (queue)", () -> new Event.SeekerMoveEvent("g", "Paris", "Rome", 7739, 1105.6),
+                json, binary);
+        report("SEEKER_MOVE", () -> GameEvent.seekerMove(GAME, SEEKER, "Paris", "Rome", 1105.6, 7739),
+                jsonGameEvents, binaryGameEvents);
+        report("NEW_GAME", () -> GameEvent.newGame(GAME, SEEKER, hiders()), jsonGameEvents, binaryGameEvents);
+        report("GAME_OVER", () -> GameEvent.gameOver(GAME, 42_000, SEEKER, hiders(), discoverers(), 0),
+                jsonGameEvents, binaryGameEvents);
+    }
+
+    private static void report(String name, Supplier<Object> event, Codec json, Codec binary) {
+        Object item = event.get();
+        int jsonSize = json.encode(item).length;
+        int binarySize = binary.encode(item).length;
+        long jsonNanos = nanosPerRoundTrip(json, item);
+        long binaryNanos = nanosPerRoundTrip(binary, item);
+        System.out.printf("%-20s json: %4d bytes %6d ns | binary: %4d bytes %6d ns%n",
+                name, jsonSize, jsonNanos, binarySize, binaryNanos);
+    }
+
+    // Best of 5 rounds, so the first ones warm up the JIT
+    private static long nanosPerRoundTrip(Codec codec, Object item) {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {
+            long begin = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                if (codec.decode(codec.encode(item)) == null) {
+                    throw new IllegalStateException("Cannot decode " + item);
+                }
+            }
+            best = Math.min(best, (System.nanoTime() - begin) / ITERATIONS);
+        }
+        return best;
+    }
+
+    private static Map<String, String> discoverers() {
+        return Map.of("roxanne", "clement", "suzie", "clement", "stephane", "guillaume", "loic", "guillaume");
+    }
+
+    private static Map<String, String> hiders() {
+        Map<String, String> hiders = new HashMap<>();
+        hiders.put("roxanne", "Paris");
+        hiders.put("suzie", "London");
+        hiders.put("stephane", "Madrid");
+        hiders.put("loic", "Berlin");
+        return hiders;
+    }
+
+}
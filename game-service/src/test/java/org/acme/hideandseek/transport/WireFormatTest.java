@@ -0,0 +1,143 @@
+package org.acme.hideandseek.transport;
+
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import io.quarkus.redis.datasource.codecs.Codec;
+import io.vertx.core.json.jackson.DatabindCodec;
+import org.acme.hideandseek.model.Event;
+import org.acme.hideandseek.model.GameEvent;
+import org.acme.hideandseek.model.Player;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+class WireFormatTest {
+
+    private static final Player SEEKER = new Player("1", "clement", "clement.png", 10);
+
+    private final EventCodec json = new EventCodec("json");
+    private final EventCodec binary = new EventCodec("binary");
+    private final GameEventCodec jsonGameEvents = new GameEventCodec("json");
+    private final GameEventCodec binaryGameEvents = new GameEventCodec("binary");
+
+    @BeforeAll
+    static void configureJackson() {
+        // Done by Quarkus in the application
+        DatabindCodec.mapper().registerModule(new Jdk8Module());
+    }
+
+    @Test
+    void testEventRoundTrip() {
+        var started = (Event.GameStartedEvent) binary.decode(binary.encode(new Event.GameStartedEvent("g", SEEKER)));
+        Assertions.assertEquals(Event.Kind.GAME_STARTED, started.kind);
+        Assertions.assertEquals("g", started.gameId);
+        Assertions.assertEquals(SEEKER, started.seeker);
+
+        var move = (Event.SeekerMoveEvent) binary.decode(binary.encode(
+                new Event.SeekerMoveEvent("g", "Paris", "Zürich", 1234, 487.3)));
+        Assertions.assertEquals("Paris", move.origin);
+        Assertions.assertEquals("Zürich", move.destination);
+        Assertions.assertEquals(1234, move.duration);
+        Assertions.assertEquals(487.3, move.distance);
+
+        var arrived = (Event.SeekerArrivedAtEvent) binary.decode(binary.encode(
+                new Event.SeekerArrivedAtEvent("g", "Rome")));
+        Assertions.assertEquals("Rome", arrived.place);
+        Assertions.assertEquals(Event.Kind.TIMES_UP, binary.decode(binary.encode(new Event.TimesUpEvent("g"))).kind);
+    }
+
+    @Test
+    void testSeekerFields() {
+        var started = (Event.GameStartedEvent) binary.decode(binary.encode(
+                new Event.GameStartedEvent("g", SEEKER, 2, 3)));
+        Assertions.assertEquals(2, started.region);
+        Assertions.assertEquals(3, started.regions);
+
+        var position = (Event.SeekerAtPositionEvent) binary.decode(binary.encode(
+                new Event.SeekerAtPositionEvent("g", "Paris", "clement")));
+        Assertions.assertEquals("clement", position.seeker);
+
+        var json = (Event.SeekerMoveEvent) this.json.decode(this.json.encode(
+                new Event.SeekerMoveEvent("g", "Paris", "Rome", 7739, 1105.6, "clement")));
+        Assertions.assertEquals("clement", json.seeker);
+        var ended = (Event.GameEndedEvent) binary.decode(binary.encode(new Event.GameEndedEvent("g", hiders())));
+        Assertions.assertEquals(hiders(), ended.hiders);
+        Assertions.assertNull(binary.decode(binary.encode(new Event.GameEndedEvent("g")))
+                .as(Event.GameEndedEvent.class).hiders);
+    }
+
+    @Test
+    void testGameEventRoundTrip() {
+        var over = binaryGameEvents.decode(binaryGameEvents.encode(gameOver()));
+        Assertions.assertEquals(GameEvent.Kind.GAME_OVER, over.kind);
+        Assertions.assertEquals("clement", over.seeker);
+        Assertions.assertEquals(42_000, over.duration.getAsLong());
+        Assertions.assertEquals(0, over.nonDiscoveredPlayers.getAsInt());
+        Assertions.assertTrue(over.seekerWon.orElseThrow());
+        Assertions.assertEquals(hiders(), over.hiders);
+        Assertions.assertEquals(discoverers(), over.discoverers);
+        Assertions.assertTrue(over.distance.isEmpty());
+
+        var move = binaryGameEvents.decode(binaryGameEvents.encode(seekerMove()));
+        Assertions.assertEquals("Paris", move.place);
+        Assertions.assertEquals("Rome", move.destination);
+        Assertions.assertEquals(1105.6, move.distance.getAsDouble());
+        Assertions.assertNull(move.hiders);
+        Assertions.assertNull(move.discoverers);
+        Assertions.assertTrue(move.nonDiscoveredPlayers.isEmpty());
+    }
+
+    @Test
+    void testJsonFallback() {
+        // Written by a service that has not switched to the binary encoding yet
+        var event = binary.decode(json.encode(new Event.SeekerAtPositionEvent("g", "Paris")));
+        Assertions.assertEquals("Paris", event.as(Event.SeekerAtPositionEvent.class).place);
+
+        var over = binaryGameEvents.decode(jsonGameEvents.encode(gameOver()));
+        Assertions.assertEquals(GameEvent.Kind.GAME_OVER, over.kind);
+        Assertions.assertEquals(hiders(), over.hiders);
+        Assertions.assertEquals(discoverers(), over.discoverers);
+    }
+
+    @Test
+    void testBinaryIsSmaller() {
+        assertSmaller(new Event.SeekerMoveEvent("g", "Paris", "Rome", 7739, 1105.6), json, binary);
+        assertSmaller(seekerMove(), jsonGameEvents, binaryGameEvents);
+        assertSmaller(GameEvent.newGame("3f1c0a52-4c1e-4d55-9f0e-6a4d3b0c7e21", SEEKER, hiders()),
+                jsonGameEvents, binaryGameEvents);
+        assertSmaller(gameOver(), jsonGameEvents, binaryGameEvents);
+    }
+
+    private static void assertSmaller(Object event, Codec json, Codec binary) {
+        int jsonSize = json.encode(event).length;
+        int binarySize = binary.encode(event).length;
+        Assertions.assertTrue(binarySize < jsonSize,
+                event.getClass().getSimpleName() + " is not smaller in binary: " + binarySize + " >= " + jsonSize);
+    }
+
+    private GameEvent seekerMove() {
+        return GameEvent.seekerMove("3f1c0a52-4c1e-4d55-9f0e-6a4d3b0c7e21", SEEKER, "Paris", "Rome", 1105.6, 7739);
+    }
+
+    private GameEvent gameOver() {
+        return GameEvent.gameOver("3f1c0a52-4c1e-4d55-9f0e-6a4d3b0c7e21", 42_000, SEEKER, hiders(), discoverers(),
+                0);
+    }
+
+    // Two seekers, each one finding half of the hiders
+    private static Map<String, String> discoverers() {
+        return Map.of("roxanne", "clement", "suzie", "clement", "stephane", "guillaume", "loic", "guillaume");
+    }
+
+    private static Map<String, String> hiders() {
+        Map<String, String> hiders = new HashMap<>();
+        hiders.put("roxanne", "Paris");
+        hiders.put("suzie", "London");
+        hiders.put("stephane", "Madrid");
+        hiders.put("loic", "Berlin");
+        return hiders;
+    }
+
+}
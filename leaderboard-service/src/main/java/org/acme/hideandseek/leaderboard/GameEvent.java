@@ -33,6 +33,10 @@ public class GameEvent {
     @JsonInclude(JsonInclude.Include.NON_NULL)
     public Map<String, String> hiders;
 
+    // The seeker who found each discovered hider, on game over
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Map<String, String> discoverers;
+
     public GameEvent() {
         this.kind = null;
         this.gameId = null;
@@ -42,6 +46,7 @@ public class GameEvent {
         this.destination = null;
         this.distance = OptionalDouble.empty();
         this.hiders = null;
+        this.discoverers = null;
         this.nonDiscoveredPlayers = OptionalInt.empty();
         this.duration = OptionalLong.empty();
         this.seekerWon = Optional.empty();
@@ -51,6 +56,7 @@ public class GameEvent {
         NEW_GAME,
         GAME_OVER,
         PLAYER_DISCOVERED,
+        PLAYERS_DISCOVERED,
         SEEKER_MOVE
     }
 }
@@ -0,0 +1,55 @@
+package org.acme.hideandseek.leaderboard;
+
+import io.quarkus.redis.datasource.codecs.Codec;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+import jakarta.inject.Singleton;
+import org.acme.hideandseek.wire.GameEventPayload;
+import org.acme.hideandseek.wire.WireFormat;
+
+import java.lang.reflect.Type;
+import java.util.Optional;
+
+/**
+ * Reads the game events published by the game service, in JSON or in the binary encoding.
+ * Events are always written in JSON.
+ */
+@Singleton
+public class GameEventCodec implements Codec {
+
+    @Override
+    public boolean canHandle(Type clazz) {
+        return GameEvent.class.equals(clazz);
+    }
+
+    @Override
+    public byte[] encode(Object item) {
+        return Json.encodeToBuffer(item).getBytes();
+    }
+
+    @Override
+    public GameEvent decode(byte[] payload) {
+        if (!WireFormat.isBinary(payload)) {
+            return Json.decodeValue(Buffer.buffer(payload), GameEvent.class);
+        }
+        var fields = GameEventPayload.decode(payload);
+        var event = new GameEvent();
+        // null for the pings, not relevant here
+        event.kind = fields.kind(GameEvent.Kind.class);
+        event.gameId = fields.gameId();
+        event.seeker = fields.seeker();
+        event.hider = fields.hider();
+        event.place = fields.place();
+        event.destination = fields.destination();
+        event.hiders = fields.hiders();
+        event.distance = fields.distance();
+        event.duration = fields.duration();
+        event.nonDiscoveredPlayers = fields.nonDiscoveredPlayers();
+        if (fields.nonDiscoveredPlayers().isPresent()) {
+            event.seekerWon = Optional.of(fields.nonDiscoveredPlayers().getAsInt() == 0);
+        }
+        event.discoverers = fields.discoverers();
+        return event;
+    }
+
+}
@@ -7,7 +7,9 @@ import io.quarkus.runtime.Startup;
 import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.operators.multi.processors.BroadcastProcessor;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Startup
 public class LeaderboardService {
@@ -34,8 +36,16 @@ public class LeaderboardService {
     }
 
     private synchronized void updateScore(GameEvent event) {
-        // seeker = number of found players -1 (the seeker)
-        increment(event.seeker, event.hiders.keySet().size() - event.nonDiscoveredPlayers.orElse(0));
+        if (event.discoverers == null) {
+            // Sent by a game service not aware of the seekers: seeker = number of found players
+            increment(event.seeker, event.hiders.keySet().size() - event.nonDiscoveredPlayers.orElse(0));
+        } else {
+            // Each seeker scores the players it found
+            Map<String, Integer> scores = new HashMap<>();
+            scores.put(event.seeker, 0);
+            event.discoverers.values().forEach(seeker -> scores.merge(seeker, 1, Integer::sum));
+            scores.forEach(this::increment);
+        }
         stream.onNext(getLeaderboard());
     }
 
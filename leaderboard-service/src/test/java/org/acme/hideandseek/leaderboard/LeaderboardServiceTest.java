@@ -94,6 +94,24 @@ class LeaderboardServiceTest {
         Assertions.assertEquals("roxanne", service.getLeaderboard().get(1).value);
     }
 
+    @Test
+    void testScorePerSeeker() {
+        var event = new GameEvent();
+        event.kind = GameEvent.Kind.GAME_OVER;
+        event.seeker = "clement";
+        event.hiders = Map.of("roxanne", "floor 2", "suzie", "floor 1", "stephane", "floor 0");
+        event.discoverers = Map.of("roxanne", "guillaume", "suzie", "guillaume");
+        event.nonDiscoveredPlayers = OptionalInt.of(1);
+        redis.pubsub(GameEvent.class).publish(TOPIC_EVENTS, event);
+
+        await().until(() -> service.getLeaderboard().size() == 2);
+        Assertions.assertEquals("guillaume", service.getLeaderboard().get(0).value);
+        Assertions.assertEquals(2, service.getLeaderboard().get(0).score);
+        // The first seeker found nobody
+        Assertions.assertEquals("clement", service.getLeaderboard().get(1).value);
+        Assertions.assertEquals(0, service.getLeaderboard().get(1).score);
+    }
+
     @Test
     void testStream() {
         var empty = service.getLeaderboard();
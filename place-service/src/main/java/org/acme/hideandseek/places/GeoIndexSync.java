@@ -0,0 +1,201 @@
+package org.acme.hideandseek.places;
+
+import io.quarkus.redis.datasource.RedisDataSource;
+import io.quarkus.redis.datasource.geo.GeoItem;
+import io.quarkus.runtime.Startup;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.Readiness;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the geo index of the places ({@code hide-and-seek:geo}) in sync with the place documents.
+ * <p>
+ * Each write on a {@code hide-and-seek:places:} key is reported by a keyspace notification (the server must have
+ * them enabled with {@code notify-keyspace-events KEghdxze}, or {@code hide-and-seek.places.enable-notifications=true}
+ * to let the service add these flags to the current ones): the document is read again, and its place is added to,
+ * moved in, or removed from the geo index. Geo members are place names, so the name of each key is kept in
+ * {@code hide-and-seek:geo:names} to remove the right member when a document is deleted or renamed.
+ * <p>
+ * When it starts, the service also fills the geo index from all the documents, in the background, one batch at a
+ * time. It is not ready until this backfill is done. The game and seeker services are then told to reload the
+ * places on {@code hide-and-seek/changes}.
+ */
+@Startup
+@Readiness
+public class GeoIndexSync implements HealthCheck, Runnable {
+
+    public static final String NAMES_KEY = "hide-and-seek:geo:names";
+    // The events reporting a write on a JSON document, the message is the key
+    static final List<String> PLACE_EVENTS = List.of("__keyevent@*__:json.*", "__keyevent@*__:del",
+            "__keyevent@*__:expired", "__keyevent@*__:evicted");
+    // Egdxe for the events above, Kghz for the keyspace events of the game and seeker services
+    static final String NOTIFICATION_FLAGS = "KEghdxze";
+    private static final String TOPIC_CHANGES = "hide-and-seek/changes";
+    private final static Logger LOGGER = Logger.getLogger("GeoIndexSync");
+
+    private final RedisDataSource redis;
+    private final PlaceRepository repository;
+    private final boolean enableNotifications;
+    private final CountDownLatch loaded = new CountDownLatch(1);
+    // Keys written since the last sync, a key written several times is only read once
+    private final Set<String> pending = new LinkedHashSet<>();
+
+    public GeoIndexSync(RedisDataSource redis, PlaceRepository repository,
+                        @ConfigProperty(name = "hide-and-seek.places.enable-notifications", defaultValue = "false")
+                        boolean enableNotifications) {
+        this.redis = redis;
+        this.repository = repository;
+        this.enableNotifications = enableNotifications;
+
+        // Subscribe before the backfill, so no write is missed in between
+        // Called on the I/O thread, the documents are read on the sync thread
+        redis.pubsub(String.class).subscribeToPatterns(PLACE_EVENTS, key -> {
+            if (key.startsWith(PlaceRepository.KEY_PREFIX)) {
+                changed(key);
+            }
+        });
+        Thread.ofVirtual().start(this);
+    }
+
+    @Override
+    public HealthCheckResponse call() {
+        return HealthCheckResponse.named("geo-index").status(loaded.getCount() == 0).build();
+    }
+
+    /**
+     * Blocks until the geo index has been filled.
+     *
+     * @return {@code false} if the timeout elapsed first
+     */
+    public boolean awaitLoaded(long timeout, TimeUnit unit) throws InterruptedException {
+        return loaded.await(timeout, unit);
+    }
+
+    private synchronized void changed(String key) {
+        pending.add(key);
+        notifyAll();
+    }
+
+    public void run() {
+        while (true) {
+            try {
+                backfill();
+                loaded.countDown();
+                break;
+            } catch (Exception e) {
+                LOGGER.errorf(e, "Unable to fill the geo index, retrying");
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        while (true) {
+            List<String> keys;
+            try {
+                synchronized (this) {
+                    while (pending.isEmpty()) {
+                        wait();
+                    }
+                    keys = new ArrayList<>(pending);
+                    pending.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                keys.forEach(this::sync);
+                redis.pubsub(String.class).publish(TOPIC_CHANGES, "places");
+            } catch (Exception e) {
+                LOGGER.errorf(e, "Unable to update the geo index for %s", keys);
+            }
+        }
+    }
+
+    private void backfill() {
+        if (enableNotifications) {
+            enableNotifications();
+        }
+        long begin = System.currentTimeMillis();
+        long[] count = new long[1];
+        repository.batches().forEach(batch -> {
+            if (batch.isEmpty()) {
+                return;
+            }
+            Map<String, String> names = new HashMap<>();
+            List<GeoItem<String>> items = new ArrayList<>(batch.size());
+            batch.forEach((key, place) -> {
+                names.put(key, place.name());
+                items.add(toGeoItem(place));
+            });
+            // One round trip for the whole batch
+            redis.withTransaction(tx -> {
+                tx.geo(String.class).geoadd(PlaceRepository.GEO_KEY, items.toArray(new GeoItem[0]));
+                tx.hash(String.class).hset(NAMES_KEY, names);
+            });
+            count[0] += batch.size();
+        });
+        LOGGER.infof("Added %d places to the geo index in %dms", count[0], System.currentTimeMillis() - begin);
+        // The game service caches the places, and reloads them when told so
+        redis.pubsub(String.class).publish(TOPIC_CHANGES, "places");
+    }
+
+    private void enableNotifications() {
+        // [name, value], the flags set by others are kept
+        String current = redis.execute("CONFIG", "GET", "notify-keyspace-events").get(1).toString();
+        String flags = mergeFlags(current, NOTIFICATION_FLAGS);
+        if (!flags.equals(current)) {
+            redis.execute("CONFIG", "SET", "notify-keyspace-events", flags);
+            LOGGER.infof("Enabled the keyspace notifications: %s", flags);
+        }
+    }
+
+    static String mergeFlags(String current, String flags) {
+        StringBuilder merged = new StringBuilder(current);
+        for (char flag : flags.toCharArray()) {
+            if (merged.indexOf(String.valueOf(flag)) < 0) {
+                merged.append(flag);
+            }
+        }
+        return merged.toString();
+    }
+
+    private void sync(String key) {
+        var place = repository.getPlace(key);
+        String previous = redis.hash(String.class).hget(NAMES_KEY, key);
+        if (previous != null && (place.isEmpty() || !previous.equals(place.get().name()))) {
+            redis.sortedSet(String.class).zrem(PlaceRepository.GEO_KEY, previous);
+        }
+        if (place.isPresent()) {
+            redis.withTransaction(tx -> {
+                tx.geo(String.class).geoadd(PlaceRepository.GEO_KEY, toGeoItem(place.get()));
+                tx.hash(String.class).hset(NAMES_KEY, key, place.get().name());
+            });
+            LOGGER.debugf("Updated %s (%s) in the geo index", key, place.get().name());
+        } else if (previous != null) {
+            redis.hash(String.class).hdel(NAMES_KEY, key);
+            LOGGER.debugf("Removed %s (%s) from the geo index", key, previous);
+        }
+    }
+
+    private static GeoItem<String> toGeoItem(Place place) {
+        String[] pos = place.coordinates().split(",");
+        return GeoItem.of(place.name(), Double.parseDouble(pos[0]), Double.parseDouble(pos[1]));
+    }
+
+}
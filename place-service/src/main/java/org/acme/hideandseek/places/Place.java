@@ -1,5 +1,9 @@
 package org.acme.hideandseek.places;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
 /**
  * A place to hide...
  * @param key the key
@@ -7,7 +11,13 @@ package org.acme.hideandseek.places;
  * @param description the description
  * @param coordinates the coordinate (lat:long)
  */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record Place(String key, String name,
                     String description, String coordinates) {
 
+    /**
+     * The fields that can be projected.
+     */
+    public static final List<String> FIELDS = List.of("key", "name", "description", "coordinates");
+
 }
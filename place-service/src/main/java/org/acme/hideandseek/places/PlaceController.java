@@ -1,28 +1,173 @@
 package org.acme.hideandseek.places;
 
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.resteasy.reactive.RestQuery;
+import org.jboss.resteasy.reactive.RestStreamElementType;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+
+import java.util.Arrays;
 import java.util.List;
 
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Serves the places. The listings accept a {@code fields} parameter (e.g. {@code fields=name,coordinates}) to only
+ * read and send some of the fields.
+ */
 @RestController
 public class PlaceController {
 
     private final PlaceRepository repository;
+    private final SearchCache searchCache;
+
+    @ConfigProperty(name = "hide-and-seek.places.max-page-size", defaultValue = "1000")
+    int maxPageSize;
+
+    @ConfigProperty(name = "hide-and-seek.places.nearest.radius", defaultValue = "1000")
+    double nearestRadius;
+
+    @ConfigProperty(name = "hide-and-seek.places.nearest.max-points", defaultValue = "1000")
+    int maxPoints;
 
-    PlaceController(PlaceRepository repository) {
+    PlaceController(PlaceRepository repository, SearchCache searchCache) {
         this.repository = repository;
+        this.searchCache = searchCache;
     }
 
+    /**
+     * @return all the places, as a JSON array written while the places are read
+     */
     @GetMapping(path = "/places")
-    public List<Place> getAllPlaces() {
-        return repository.getPlaces();
+    public Multi<Place> getAllPlaces(@RestQuery String fields) {
+        return stream(fields);
     }
 
+    /**
+     * @return all the places, one JSON document per line
+     */
+    @GetMapping(path = "/places/stream")
+    @Produces("application/x-ndjson")
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    public Multi<Place> streamPlaces(@RestQuery String fields) {
+        return stream(fields);
+    }
+
+    /**
+     * @return a page of places, and the cursor of the next page ({@code null} after the last one)
+     */
+    @GetMapping(path = "/places/page")
+    public PlaceRepository.Page getPage(@RestQuery String cursor, @RestQuery Integer limit,
+                                        @RestQuery String fields) {
+        if (cursor == null || cursor.isBlank()) {
+            cursor = "0";
+        } else if (!cursor.chars().allMatch(Character::isDigit)) {
+            throw new ResponseStatusException(BAD_REQUEST, "Invalid cursor " + cursor);
+        }
+        int size = limit == null ? maxPageSize : limit;
+        if (size <= 0 || size > maxPageSize) {
+            throw new ResponseStatusException(BAD_REQUEST, "The limit must be between 1 and " + maxPageSize);
+        }
+        return repository.getPage(cursor, size, parseFields(fields));
+    }
+
+    /**
+     * @return the places matching the query, {@code limit} (10 by default) at a time from {@code offset}
+     */
     @GetMapping(path = "/places/search")
-    public List<Place> search(@RestQuery String query) {
-        return repository.search(query);
+    public List<Place> search(@RestQuery String query, @RestQuery Integer offset, @RestQuery Integer limit,
+                              @RestQuery String fields) {
+        if (query == null || query.isBlank()) {
+            throw new ResponseStatusException(BAD_REQUEST, "The query is required");
+        }
+        int from = offset == null ? 0 : offset;
+        int size = limit == null ? 10 : limit;
+        if (from < 0) {
+            throw new ResponseStatusException(BAD_REQUEST, "The offset must be positive");
+        }
+        if (size <= 0 || size > maxPageSize) {
+            throw new ResponseStatusException(BAD_REQUEST, "The limit must be between 1 and " + maxPageSize);
+        }
+        return searchCache.search(query, from, size, parseFields(fields));
+    }
+
+    /**
+     * @param radius the radius in km, 100 by default
+     * @return the places within the radius of the point, closest first, with their distance in km
+     */
+    @GetMapping(path = "/places/near")
+    public List<PlaceRepository.PlaceDistance> near(@RestQuery Double lon, @RestQuery Double lat,
+                                                    @RestQuery Double radius, @RestQuery Integer limit,
+                                                    @RestQuery String fields) {
+        if (lon == null || lat == null) {
+            throw new ResponseStatusException(BAD_REQUEST, "The lon and lat parameters are required");
+        }
+        var point = new PlaceRepository.Point(lon, lat);
+        validate(point);
+        double distance = radius == null ? 100 : radius;
+        if (distance <= 0) {
+            throw new ResponseStatusException(BAD_REQUEST, "The radius must be positive");
+        }
+        int size = limit == null ? 10 : limit;
+        if (size <= 0 || size > maxPageSize) {
+            throw new ResponseStatusException(BAD_REQUEST, "The limit must be between 1 and " + maxPageSize);
+        }
+        return repository.near(point, distance, size, parseFields(fields));
+    }
+
+    /**
+     * @param points the points to look around
+     * @param radius the maximum distance in km, {@code hide-and-seek.places.nearest.radius} by default
+     * @return the closest place of each point with its distance in km, {@code null} if there is none within the radius
+     */
+    @PostMapping(path = "/places/nearest")
+    public List<PlaceRepository.PlaceDistance> nearest(List<PlaceRepository.Point> points, @RestQuery Double radius,
+                                                       @RestQuery String fields) {
+        if (points == null || points.size() > maxPoints) {
+            throw new ResponseStatusException(BAD_REQUEST, "Expected a list of at most " + maxPoints + " points");
+        }
+        points.forEach(PlaceController::validate);
+        double distance = radius == null ? nearestRadius : radius;
+        if (distance <= 0) {
+            throw new ResponseStatusException(BAD_REQUEST, "The radius must be positive");
+        }
+        return repository.nearest(points, distance, parseFields(fields));
+    }
+
+    // Same bounds as the Redis geo commands
+    private static void validate(PlaceRepository.Point point) {
+        if (point == null || Math.abs(point.lon()) > 180 || Math.abs(point.lat()) > 85.05112878) {
+            throw new ResponseStatusException(BAD_REQUEST, "Invalid coordinates " + point);
+        }
+    }
+
+    private Multi<Place> stream(String fields) {
+        List<String> projection = parseFields(fields);
+        // Redis is read with the blocking API, so not on the event loop
+        return Multi.createFrom().items(() -> repository.streamPlaces(projection))
+                .runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+    }
+
+    private static List<String> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return Place.FIELDS;
+        }
+        List<String> list = Arrays.stream(fields.split(",")).map(String::trim).filter(f -> !f.isEmpty())
+                .distinct().toList();
+        for (String field : list) {
+            if (!Place.FIELDS.contains(field)) {
+                throw new ResponseStatusException(BAD_REQUEST, "Unknown field " + field
+                        + ", supported fields are " + String.join(", ", Place.FIELDS));
+            }
+        }
+        return list.isEmpty() ? Place.FIELDS : list;
     }
 
 }
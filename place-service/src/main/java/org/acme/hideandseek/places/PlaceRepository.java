@@ -1,50 +1,328 @@
 package org.acme.hideandseek.places;
 
 import io.quarkus.redis.datasource.RedisDataSource;
+import io.quarkus.redis.datasource.keys.KeyScanArgs;
+import io.quarkus.redis.datasource.keys.KeyScanCursor;
 import io.quarkus.redis.datasource.search.Document;
-import io.quarkus.runtime.Startup;
+import io.quarkus.redis.datasource.search.QueryArgs;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.mutiny.redis.client.Command;
+import io.vertx.mutiny.redis.client.Redis;
+import io.vertx.mutiny.redis.client.Request;
+import io.vertx.mutiny.redis.client.Response;
+import jakarta.inject.Singleton;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-@Startup
+/**
+ * Reads the places stored as JSON documents under {@code hide-and-seek:places:}.
+ * <p>
+ * The keys are iterated with {@code SCAN}, and the documents of each page are read with a single {@code JSON.MGET}
+ * of at most {@code hide-and-seek.places.batch-size} keys. So Redis is never blocked by a whole keyspace scan, and
+ * only one batch of documents is held in memory when the places are streamed (along with the keys already
+ * returned, see {@link #streamPlaces()}).
+ * <p>
+ * The reads can be restricted to some of the {@link Place#FIELDS fields}: each field is then read with its own
+ * JSON path (one {@code JSON.MGET} per field, pipelined), and the documents are never fully transferred.
+ * <p>
+ * The geo queries use the {@code coordinates} field of the search index: {@code FT.AGGREGATE} filters the places
+ * by radius, computes their distance and sorts them, so only the closest places are sent back.
+ */
+@Singleton
 public class PlaceRepository {
 
+    public static final String KEY_PREFIX = "hide-and-seek:places:";
+    public static final String GEO_KEY = "hide-and-seek:geo";
+
     private final RedisDataSource redis;
+    private final Redis client;
+    private final int batchSize;
 
-    PlaceRepository(RedisDataSource redis) {
+    PlaceRepository(RedisDataSource redis, Redis client,
+                    @ConfigProperty(name = "hide-and-seek.places.batch-size", defaultValue = "500") int batchSize) {
         this.redis = redis;
-        initGeoSpatialData();
+        this.client = client;
+        this.batchSize = Math.max(1, batchSize);
     }
 
-    private void initGeoSpatialData() {
-        // Iterate over keys with a pattern
-        for (String key : redis.key().keys("hide-and-seek:places:*")) {
-            // Read every value as JSON
-            Place place = redis.json().jsonGet(key, Place.class);
-            String[] pos = place.coordinates().split(",");
-            // Add the item to a list of geo indices
-            redis.geo(String.class)
-                    .geoadd("hide-and-seek:geo",
-                            Double.parseDouble(pos[0]), Double.parseDouble(pos[1]),
-                            place.name());
-        }
+    /**
+     * @param key the key of the JSON document
+     * @return the place, empty if the key does not exist or is not a JSON document
+     */
+    public Optional<Place> getPlace(String key) {
+        return Optional.ofNullable(read(List.of(key), Place.FIELDS).get(key));
     }
 
     public List<Place> getPlaces() {
-        return redis.key().keys("hide-and-seek:places:*").stream()
-                .map(key -> redis.json().jsonGet(key, Place.class))
-                .collect(Collectors.toList());
+        return streamPlaces().collect(Collectors.toList());
+    }
+
+    /**
+     * Streams the places, reading them batch by batch as the stream is consumed. Each key is only returned once,
+     * even if {@code SCAN} returns it again while Redis rehashes: the keys already returned are kept until the end
+     * of the stream, so its memory grows with the number of places (keys only, not the documents).
+     * <p>
+     * A place modified during the iteration may be missing, or seen with both its old and new content if it was
+     * moved to another key.
+     */
+    public Stream<Place> streamPlaces() {
+        return streamPlaces(Place.FIELDS);
+    }
+
+    /**
+     * Same as {@link #streamPlaces()}, only reading the given fields (the others are {@code null}).
+     */
+    public Stream<Place> streamPlaces(List<String> fields) {
+        Set<String> seen = new HashSet<>();
+        return batches(fields).flatMap(batch -> batch.entrySet().stream()
+                .filter(entry -> seen.add(entry.getKey()))
+                .map(Map.Entry::getValue));
+    }
+
+    /**
+     * Reads a page of places. The pages are delimited by a {@code SCAN} cursor, so they stay consistent when
+     * places are added or removed: a place present during the whole iteration is returned at least once.
+     *
+     * @param cursor the cursor returned with the previous page, {@code 0} for the first page
+     * @param limit  the number of places to read; a page may hold a few more, as {@code SCAN} returns the keys by
+     *               slots
+     * @param fields the fields to read
+     * @return the page, with a {@code null} cursor if it is the last one
+     */
+    public Page getPage(String cursor, int limit, List<String> fields) {
+        List<Place> places = new ArrayList<>();
+        String next = cursor;
+        do {
+            var response = redis.execute("SCAN", next, "MATCH", KEY_PREFIX + "*", "COUNT",
+                    Integer.toString(Math.min(limit - places.size(), batchSize)));
+            next = response.get(0).toString();
+            List<String> keys = new ArrayList<>();
+            response.get(1).forEach(key -> keys.add(key.toString()));
+            places.addAll(read(keys, fields).values());
+        } while (places.size() < limit && !"0".equals(next));
+        return new Page(places, "0".equals(next) ? null : next);
+    }
+
+    public record Page(List<Place> places, String cursor) {
+    }
+
+    /**
+     * Streams the places batch by batch, by key.
+     */
+    Stream<Map<String, Place>> batches() {
+        return batches(Place.FIELDS);
+    }
+
+    private Stream<Map<String, Place>> batches(List<String> fields) {
+        KeyScanCursor<String> cursor = redis.key().scan(new KeyScanArgs().match(KEY_PREFIX + "*").count(batchSize));
+        Iterator<Map<String, Place>> iterator = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
+
+            @Override
+            public Map<String, Place> next() {
+                if (!cursor.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return read(cursor.next(), fields);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    // COUNT is only a hint, so a SCAN page is split when larger than the batch size
+    private Map<String, Place> read(Collection<String> keys, List<String> fields) {
+        Map<String, Place> places = new LinkedHashMap<>();
+        List<String> batch = new ArrayList<>(Math.min(keys.size(), batchSize));
+        for (String key : keys) {
+            batch.add(key);
+            if (batch.size() == batchSize) {
+                mget(batch, fields, places);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            mget(batch, fields, places);
+        }
+        return places;
+    }
+
+    private void mget(List<String> keys, List<String> fields, Map<String, Place> places) {
+        String[] array = keys.toArray(new String[0]);
+        if (fields.containsAll(Place.FIELDS)) {
+            List<JsonArray> documents = redis.json().jsonMget("$", array);
+            for (int i = 0; i < array.length; i++) {
+                JsonArray values = documents.get(i);
+                // null when the key has been deleted, or is not a JSON document
+                if (values != null && !values.isEmpty() && values.getValue(0) instanceof JsonObject json) {
+                    places.put(array[i], json.mapTo(Place.class));
+                }
+            }
+            return;
+        }
+
+        // One JSON.MGET per field, in a single pipeline
+        List<Request> requests = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            Request request = Request.cmd(Command.JSON_MGET);
+            for (String key : array) {
+                request.arg(key);
+            }
+            requests.add(request.arg("$." + field));
+        }
+        List<JsonObject> projections = new ArrayList<>(array.length);
+        for (int i = 0; i < array.length; i++) {
+            projections.add(new JsonObject());
+        }
+        boolean[] found = new boolean[array.length];
+        List<Response> responses = client.batchAndAwait(requests);
+        for (int f = 0; f < fields.size(); f++) {
+            Response values = responses.get(f);
+            for (int i = 0; i < array.length; i++) {
+                // The values matching the path, as a JSON array
+                Response value = values.get(i);
+                JsonArray matches = value == null ? null : new JsonArray(value.toString());
+                if (matches != null && !matches.isEmpty()) {
+                    projections.get(i).put(fields.get(f), matches.getValue(0));
+                    found[i] = true;
+                }
+            }
+        }
+        for (int i = 0; i < array.length; i++) {
+            if (found[i]) {
+                places.put(array[i], projections.get(i).mapTo(Place.class));
+            }
+        }
     }
 
     public List<Place> search(String query) {
+        return search(query, 0, 10, Place.FIELDS);
+    }
+
+    /**
+     * @param offset the number of results to skip
+     * @param limit  the maximum number of results
+     * @param fields the fields to return, the others are {@code null}
+     */
+    public List<Place> search(String query, int offset, int limit, List<String> fields) {
+        var args = new QueryArgs().limit(offset, limit);
+        boolean projected = !fields.containsAll(Place.FIELDS);
+        if (projected) {
+            // Only send these fields back, instead of the whole documents
+            fields.forEach(field -> args.returnAttribute("$." + field, field));
+        }
         // Use the index to find places
-        return redis.search().ftSearch("hide-and-seek:places-index", query)
+        return redis.search().ftSearch(IndexManager.INDEX_NAME, query, args)
                 .documents()
                 .stream()
-                .map(this::createPlaceFromDocument)
+                .map(document -> projected ? createPlaceFromFields(document, fields)
+                        : createPlaceFromDocument(document))
                 .collect(Collectors.toList());
+    }
+
+    /**
+     * @param point  the center of the search
+     * @param radius the radius, in km
+     * @param limit  the maximum number of places
+     * @param fields the fields to return, the others are {@code null}
+     * @return the places within the radius, closest first
+     */
+    public List<PlaceDistance> near(Point point, double radius, int limit, List<String> fields) {
+        return readDistances(client.sendAndAwait(aggregate(point, radius, limit, fields)), fields);
+    }
+
+    /**
+     * Looks for the closest place of each point, with a single pipeline.
+     *
+     * @param radius the maximum distance, in km
+     * @return the closest place of each point, in the same order, {@code null} when there is none within the radius
+     */
+    public List<PlaceDistance> nearest(List<Point> points, double radius, List<String> fields) {
+        if (points.isEmpty()) {
+            return List.of();
+        }
+        List<Request> requests = points.stream().map(point -> aggregate(point, radius, 1, fields)).toList();
+        List<PlaceDistance> result = new ArrayList<>(points.size());
+        for (Response response : client.batchAndAwait(requests)) {
+            var places = readDistances(response, fields);
+            result.add(places.isEmpty() ? null : places.get(0));
+        }
+        return result;
+    }
 
+    /**
+     * @param lon the longitude, in degrees
+     * @param lat the latitude, in degrees
+     */
+    public record Point(double lon, double lat) {
+    }
+
+    /**
+     * @param distance the distance from the searched point, in km
+     */
+    public record PlaceDistance(Place place, double distance) {
+    }
+
+    // FT.AGGREGATE <index> "@coordinates:[lon lat radius km]" LOAD ... APPLY geodistance(...) AS distance
+    //   SORTBY 2 @distance ASC LIMIT 0 <limit>
+    private Request aggregate(Point point, double radius, int limit, List<String> fields) {
+        String lon = BigDecimal.valueOf(point.lon()).toPlainString();
+        String lat = BigDecimal.valueOf(point.lat()).toPlainString();
+        var request = Request.cmd(Command.FT_AGGREGATE).arg(IndexManager.INDEX_NAME)
+                .arg("@coordinates:[" + lon + " " + lat + " " + BigDecimal.valueOf(radius).toPlainString() + " km]");
+        // The coordinates are needed to compute the distance
+        List<String> loaded = new ArrayList<>(fields);
+        if (!loaded.contains("coordinates")) {
+            loaded.add("coordinates");
+        }
+        request.arg("LOAD").arg(loaded.size() * 3);
+        for (String field : loaded) {
+            request.arg("$." + field).arg("AS").arg(field);
+        }
+        return request.arg("APPLY").arg("geodistance(@coordinates, " + lon + ", " + lat + ")").arg("AS").arg("distance")
+                .arg("SORTBY").arg(2).arg("@distance").arg("ASC")
+                .arg("LIMIT").arg(0).arg(limit);
+    }
+
+    // The reply is the number of results, then one array of attribute names and values per result
+    private List<PlaceDistance> readDistances(Response response, List<String> fields) {
+        List<PlaceDistance> places = new ArrayList<>(Math.max(0, response.size() - 1));
+        for (int i = 1; i < response.size(); i++) {
+            Response row = response.get(i);
+            JsonObject json = new JsonObject();
+            double distance = 0;
+            for (int j = 0; j + 1 < row.size(); j += 2) {
+                String attribute = row.get(j).toString();
+                String value = row.get(j + 1) == null ? null : row.get(j + 1).toString();
+                if ("distance".equals(attribute)) {
+                    distance = Double.parseDouble(value) / 1000;
+                } else if (fields.contains(attribute)) {
+                    json.put(attribute, value);
+                }
+            }
+            places.add(new PlaceDistance(json.mapTo(Place.class), distance));
+        }
+        return places;
     }
 
     private Place createPlaceFromDocument(Document document) {
@@ -52,4 +330,15 @@ public class PlaceRepository {
             .asJsonObject().mapTo(Place.class);
     }
 
+    private Place createPlaceFromFields(Document document, List<String> fields) {
+        JsonObject json = new JsonObject();
+        for (String field : fields) {
+            var property = document.properties().get(field);
+            if (property != null) {
+                json.put(field, property.asString());
+            }
+        }
+        return json.mapTo(Place.class);
+    }
+
 }
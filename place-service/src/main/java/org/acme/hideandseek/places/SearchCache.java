@@ -0,0 +1,87 @@
+package org.acme.hideandseek.places;
+
+import io.quarkus.redis.datasource.RedisDataSource;
+import jakarta.inject.Singleton;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caches the results of the place searches, so popular queries do not hit the search index every time.
+ * <p>
+ * At most {@code hide-and-seek.places.search-cache.size} result pages are kept (least recently used first out),
+ * for {@code hide-and-seek.places.search-cache.ttl}. The whole cache is dropped when a place is written, as reported
+ * by the keyspace notifications (see {@link GeoIndexSync}); the TTL bounds the staleness when they are disabled.
+ */
+@Singleton
+public class SearchCache {
+
+    private final PlaceRepository repository;
+    private final int size;
+    private final long ttl;
+    private final Map<Key, Entry> entries;
+    // Incremented on each invalidation, so a search running meanwhile does not cache a stale result
+    private long generation;
+
+    record Key(String query, int offset, int limit, List<String> fields) {
+    }
+
+    private record Entry(List<Place> places, long expiresAt) {
+    }
+
+    public SearchCache(RedisDataSource redis, PlaceRepository repository,
+                       @ConfigProperty(name = "hide-and-seek.places.search-cache.size", defaultValue = "1000")
+                       int size,
+                       @ConfigProperty(name = "hide-and-seek.places.search-cache.ttl", defaultValue = "30s")
+                       Duration ttl) {
+        this.repository = repository;
+        this.size = size;
+        this.ttl = ttl.toMillis();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > SearchCache.this.size;
+            }
+        };
+
+        redis.pubsub(String.class).subscribeToPatterns(GeoIndexSync.PLACE_EVENTS, key -> {
+            if (key.startsWith(PlaceRepository.KEY_PREFIX)) {
+                invalidate();
+            }
+        });
+    }
+
+    /**
+     * Same as {@link PlaceRepository#search(String, int, int, List)}, from the cache when possible.
+     */
+    public List<Place> search(String query, int offset, int limit, List<String> fields) {
+        if (size <= 0) {
+            return repository.search(query, offset, limit, fields);
+        }
+        Key key = new Key(query, offset, limit, List.copyOf(fields));
+        long current;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt() > System.currentTimeMillis()) {
+                return entry.places();
+            }
+            current = generation;
+        }
+        List<Place> places = List.copyOf(repository.search(query, offset, limit, fields));
+        synchronized (this) {
+            if (generation == current) {
+                entries.put(key, new Entry(places, System.currentTimeMillis() + ttl));
+            }
+        }
+        return places;
+    }
+
+    synchronized void invalidate() {
+        generation++;
+        entries.clear();
+    }
+
+}
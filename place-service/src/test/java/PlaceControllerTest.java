@@ -1,15 +1,20 @@
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.common.mapper.TypeRef;
 import org.acme.hideandseek.places.Place;
+import org.acme.hideandseek.places.PlaceRepository;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static io.restassured.RestAssured.get;
 import static io.restassured.RestAssured.with;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @QuarkusTest
 class PlaceControllerTest {
@@ -24,6 +29,41 @@ class PlaceControllerTest {
         assertEquals(17, list.size());
     }
 
+    @Test
+    void getAllWithFields() {
+        List<Place> list = get("/places?fields=name,coordinates")
+                .then()
+                .statusCode(200)
+                .extract().response().as(new TypeRef<>() {
+                });
+        assertEquals(17, list.size());
+        for (Place place : list) {
+            assertNotNull(place.name());
+            assertNotNull(place.coordinates());
+            assertNull(place.description());
+        }
+
+        get("/places?fields=name,brouette").then().statusCode(400);
+    }
+
+    @Test
+    void getPages() {
+        Set<String> names = new HashSet<>();
+        String cursor = "0";
+        do {
+            PlaceRepository.Page page = get("/places/page?limit=5&cursor=" + cursor)
+                    .then()
+                    .statusCode(200)
+                    .extract().response().as(PlaceRepository.Page.class);
+            page.places().forEach(place -> names.add(place.name()));
+            cursor = page.cursor();
+        } while (cursor != null);
+        assertEquals(17, names.size());
+
+        get("/places/page?limit=0").then().statusCode(400);
+        get("/places/page?cursor=abc").then().statusCode(400);
+    }
+
     @Test
     void search() {
         List<Place> list = get("/places/search?query=old")
@@ -41,5 +81,73 @@ class PlaceControllerTest {
         assertEquals(0, list.size());
     }
 
+    @Test
+    void searchPages() {
+        List<Place> first = get("/places/search?query=old&limit=2&fields=name,coordinates")
+                .then()
+                .statusCode(200)
+                .extract().response().as(new TypeRef<>() {
+                });
+        assertEquals(2, first.size());
+        for (Place place : first) {
+            assertNotNull(place.name());
+            assertNotNull(place.coordinates());
+            assertNull(place.description());
+        }
+
+        List<Place> second = get("/places/search?query=OLD &offset=2&limit=2")
+                .then()
+                .statusCode(200)
+                .extract().response().as(new TypeRef<>() {
+                });
+        assertEquals(1, second.size());
+        assertNotNull(second.get(0).description());
+
+        get("/places/search?query=old&limit=0").then().statusCode(400);
+        get("/places/search").then().statusCode(400);
+    }
+
+    @Test
+    void near() {
+        List<PlaceRepository.PlaceDistance> list = get("/places/near?lon=2.35&lat=48.85&radius=10&fields=name")
+                .then()
+                .statusCode(200)
+                .extract().response().as(new TypeRef<>() {
+                });
+        assertEquals(1, list.size());
+        assertEquals("Paris", list.get(0).place().name());
+        assertNull(list.get(0).place().coordinates());
+        assertTrue(list.get(0).distance() < 1);
+
+        list = get("/places/near?lon=2.35&lat=48.85&radius=3000&limit=3")
+                .then()
+                .statusCode(200)
+                .extract().response().as(new TypeRef<>() {
+                });
+        assertEquals(3, list.size());
+        assertTrue(list.get(0).distance() <= list.get(1).distance());
+        assertTrue(list.get(1).distance() <= list.get(2).distance());
+
+        get("/places/near?lon=2.35").then().statusCode(400);
+        get("/places/near?lon=2.35&lat=90").then().statusCode(400);
+    }
+
+    @Test
+    void nearest() {
+        List<PlaceRepository.PlaceDistance> list = with()
+                .contentType("application/json")
+                .body(List.of(new PlaceRepository.Point(2.35, 48.85), new PlaceRepository.Point(-0.12, 51.5),
+                        new PlaceRepository.Point(-140, 0)))
+                .post("/places/nearest?fields=name")
+                .then()
+                .statusCode(200)
+                .extract().response().as(new TypeRef<>() {
+                });
+        assertEquals(3, list.size());
+        assertEquals("Paris", list.get(0).place().name());
+        assertEquals("London", list.get(1).place().name());
+        // Nothing in the middle of the Pacific
+        assertNull(list.get(2));
+    }
 
-}
\ No newline at end of file
+}
@@ -4,6 +4,7 @@ import io.quarkus.redis.datasource.geo.GeoUnit;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.common.mapper.TypeRef;
 import jakarta.inject.Inject;
+import org.acme.hideandseek.places.GeoIndexSync;
 import org.acme.hideandseek.places.Place;
 import org.acme.hideandseek.places.PlaceRepository;
 import org.junit.jupiter.api.Assertions;
@@ -11,6 +12,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static io.restassured.RestAssured.get;
 import static io.restassured.RestAssured.with;
@@ -27,6 +29,9 @@ class PlaceRepositoryTest {
     @Autowired
     RedisDataSource redis;
 
+    @Autowired
+    GeoIndexSync sync;
+
     @Test
     void testAllPlaces() {
         var places = repository.getPlaces();
@@ -37,6 +42,13 @@ class PlaceRepositoryTest {
         }
     }
 
+    @Test
+    void testStreamPlaces() {
+        var places = repository.streamPlaces().toList();
+        Assertions.assertEquals(17, places.size());
+        Assertions.assertEquals(17, places.stream().map(Place::key).distinct().count());
+    }
+
     @Test
     void testSearch() {
         var old = repository.search("old");
@@ -52,10 +64,42 @@ class PlaceRepositoryTest {
     }
 
     @Test
-    void testGeoIndices() {
+    void testGeoIndices() throws InterruptedException {
+        Assertions.assertTrue(sync.awaitLoaded(10, TimeUnit.SECONDS));
         var place = repository.getPlaces().get(0);
         var list = redis.geo(String.class).geosearch("hide-and-seek:geo", new GeoSearchArgs<String>()
                 .fromMember(place.name()).withDistance().byRadius(3000, GeoUnit.KM));
         Assertions.assertEquals(repository.getPlaces().size(), list.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGeoIndexSync() throws InterruptedException {
+        Assertions.assertTrue(sync.awaitLoaded(10, TimeUnit.SECONDS));
+        String key = PlaceRepository.KEY_PREFIX + "test";
+        redis.json().jsonSet(key, "$", new Place("places:test", "Valletta", "The capital of Malta",
+                "14.5146,35.8989"));
+        try {
+            awaitGeo("Valletta", true);
+            Assertions.assertTrue(repository.getPlace(key).isPresent());
+
+            // Renaming the place moves it in the geo index
+            redis.json().jsonSet(key, "$.name", "Mdina");
+            awaitGeo("Mdina", true);
+            awaitGeo("Valletta", false);
+        } finally {
+            redis.key().del(key);
+        }
+        awaitGeo("Mdina", false);
+    }
+
+    private void awaitGeo(String member, boolean present) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            boolean found = redis.geo(String.class).geopos(PlaceRepository.GEO_KEY, member).get(0) != null;
+            if (found == present) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        Assertions.fail(member + (present ? " not added to" : " not removed from") + " the geo index");
+    }
+}
@@ -10,6 +10,8 @@ import java.util.List;
 public class PlayerRepository {
 
     private static final String PLAYER_KEY = "hide-and-seek:players";
+    // The game service caches the players, and reloads them when told so
+    private static final String TOPIC_CHANGES = "hide-and-seek/changes";
     private final RedisDataSource redis;
     private final HashCommands<String, String, Player> hash;
     private final IdGenerator generator;
@@ -30,7 +32,11 @@ public class PlayerRepository {
     }
 
     boolean delete(String id) {
-        return hash.hdel(PLAYER_KEY, id) == 1;
+        if (hash.hdel(PLAYER_KEY, id) == 1) {
+            changed();
+            return true;
+        }
+        return false;
     }
 
     Player create(Player player) {
@@ -41,12 +47,13 @@ public class PlayerRepository {
         var persisted = player.withId(id);
         // Add a field/value to the hash
         hash.hset(PLAYER_KEY, id, persisted);
+        changed();
         return persisted;
     }
 
     boolean update(String id, Player player) {
         // Check-And-Set pattern
-        return !redis.withTransaction(
+        boolean updated = !redis.withTransaction(
                 // Before the transaction, get the existing player
                 con -> con.hash(Player.class).hget(PLAYER_KEY, id),
                 // In the transaction, update the player if it exists
@@ -60,5 +67,13 @@ public class PlayerRepository {
                 },
                 PLAYER_KEY) // Watch the key, so any write would discard the transaction
         .discarded();
+        if (updated) {
+            changed();
+        }
+        return updated;
+    }
+
+    private void changed() {
+        redis.pubsub(String.class).publish(TOPIC_CHANGES, "players");
     }
 }
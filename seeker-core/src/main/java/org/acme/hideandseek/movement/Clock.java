@@ -0,0 +1,86 @@
+package org.acme.hideandseek.movement;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The time used by the {@link MovementEngine}.
+ * <p>
+ * Selected with {@code hide-and-seek.clock.time-scale}:
+ * <ul>
+ *     <li>{@code 1} (default) - real time</li>
+ *     <li>{@code n > 0} - time goes {@code n} times faster, a 10s move takes 10/n seconds</li>
+ *     <li>{@code 0} - virtual time, the clock jumps to the next arrival without waiting</li>
+ * </ul>
+ */
+public interface Clock {
+
+    /**
+     * @return the current time, in ms
+     */
+    long now();
+
+    /**
+     * @return how long to wait, in real nanoseconds, until the given time is reached, 0 or less if it is reached
+     */
+    long nanosUntil(long time);
+
+    /**
+     * Called when an arrival due at the given time fires.
+     */
+    default void reached(long time) {
+        // Nothing by default
+    }
+
+    static Clock scaled(double scale) {
+        return new Scaled(scale);
+    }
+
+    static Clock virtual() {
+        return new Virtual();
+    }
+
+    final class Scaled implements Clock {
+
+        private final double scale;
+        private final long originMillis = System.currentTimeMillis();
+        private final long originNanos = System.nanoTime();
+
+        private Scaled(double scale) {
+            if (scale <= 0) {
+                throw new IllegalArgumentException("The time scale must be positive: " + scale);
+            }
+            this.scale = scale;
+        }
+
+        @Override
+        public long now() {
+            return originMillis + (long) ((System.nanoTime() - originNanos) / 1_000_000.0 * scale);
+        }
+
+        @Override
+        public long nanosUntil(long time) {
+            return (long) ((time - now()) * 1_000_000.0 / scale);
+        }
+    }
+
+    final class Virtual implements Clock {
+
+        private final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+
+        @Override
+        public long now() {
+            return now.get();
+        }
+
+        @Override
+        public long nanosUntil(long time) {
+            return 0;
+        }
+
+        @Override
+        public void reached(long time) {
+            now.accumulateAndGet(time, Math::max);
+        }
+    }
+
+}
@@ -0,0 +1,22 @@
+package org.acme.hideandseek.movement;
+
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Exposes the {@link Clock} selected with {@code hide-and-seek.clock.time-scale}.
+ */
+@Singleton
+public class ClockProducer {
+
+    @Produces
+    @Singleton
+    Clock clock(@ConfigProperty(name = "hide-and-seek.clock.time-scale", defaultValue = "1") double scale) {
+        if (scale == 0) {
+            return Clock.virtual();
+        }
+        return Clock.scaled(scale);
+    }
+
+}
@@ -0,0 +1,90 @@
+package org.acme.hideandseek.movement;
+
+import io.quarkus.runtime.Startup;
+import org.jboss.logging.Logger;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fires the arrivals of the moving seekers.
+ * <p>
+ * Pending arrivals are kept in a priority queue ordered by due time, and fired in-process by a single thread, so
+ * a move costs neither a parked thread nor a round trip to Redis. The time comes from the {@link Clock}, which
+ * can run faster than real time, or not wait at all.
+ */
+@Startup
+public class MovementEngine implements Runnable {
+
+    private final static Logger LOGGER = Logger.getLogger("MovementEngine");
+
+    private final Clock clock;
+    private final PriorityQueue<Arrival> arrivals = new PriorityQueue<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private long sequence;
+
+    private record Arrival(long due, long sequence, Runnable action) implements Comparable<Arrival> {
+        @Override
+        public int compareTo(Arrival other) {
+            int c = Long.compare(due, other.due);
+            // Same due time: first scheduled, first fired
+            return c != 0 ? c : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    public MovementEngine(Clock clock) {
+        this.clock = clock;
+        LOGGER.infof("Starting movement engine (%s)", clock.getClass().getSimpleName());
+        Thread.ofVirtual().start(this);
+    }
+
+    /**
+     * Runs {@code onArrival} once {@code duration} ms have passed on the clock.
+     * The action runs on the engine thread, it must not block.
+     */
+    public void schedule(long duration, Runnable onArrival) {
+        lock.lock();
+        try {
+            arrivals.add(new Arrival(clock.now() + duration, sequence++, onArrival));
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void run() {
+        while (true) {
+            Arrival next;
+            lock.lock();
+            try {
+                next = arrivals.peek();
+                if (next == null) {
+                    changed.await();
+                    continue;
+                }
+                long wait = clock.nanosUntil(next.due());
+                if (wait > 0) {
+                    // Woken up earlier if a closer arrival is scheduled
+                    changed.awaitNanos(wait);
+                    continue;
+                }
+                arrivals.poll();
+                clock.reached(next.due());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                next.action().run();
+            } catch (Exception e) {
+                LOGGER.errorf(e, "Unable to fire an arrival");
+            }
+        }
+    }
+
+}
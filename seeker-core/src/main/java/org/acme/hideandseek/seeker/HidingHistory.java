@@ -0,0 +1,75 @@
+package org.acme.hideandseek.seeker;
+
+import io.quarkus.redis.datasource.RedisDataSource;
+import io.quarkus.redis.datasource.sortedset.ScoredValue;
+import io.quarkus.runtime.Startup;
+import org.acme.hideandseek.strategy.HidingCounts;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts how often each place is used to hide, in the {@code hide-and-seek:hidings} sorted set.
+ * <p>
+ * The counts are updated by the seeker instance reading the end of a game: the game service only sends the places
+ * of all the hiders, found or not, with one of the {@code GAME_ENDED} events, so each game is counted once.
+ * The seeker reads them from a local snapshot, refreshed every {@code hide-and-seek.seeker.history.refresh-interval},
+ * so using them costs no Redis command per hop.
+ */
+@Startup
+public class HidingHistory implements HidingCounts {
+
+    public static final String KEY = "hide-and-seek:hidings";
+    private final static Logger LOGGER = Logger.getLogger("HidingHistory");
+
+    private final RedisDataSource redis;
+    private final Refresher<Counts> refresher;
+
+    public HidingHistory(RedisDataSource redis,
+                         @ConfigProperty(name = "hide-and-seek.seeker.history.refresh-interval", defaultValue = "30s")
+                         Duration refreshInterval) {
+        this.redis = redis;
+        this.refresher = new Refresher<>("hiding history", Counts.EMPTY, previous -> load(), refreshInterval,
+                LOGGER);
+        // Load now, without blocking the startup
+        refresher.invalidate();
+        refresher.start();
+    }
+
+    @Override
+    public Counts current() {
+        return refresher.current();
+    }
+
+    /**
+     * Adds the hiding places of a finished game to the counts.
+     *
+     * @param places the place of each hider
+     */
+    public void record(String gameId, Collection<String> places) {
+        try {
+            Map<String, Integer> hidings = new HashMap<>();
+            for (String place : places) {
+                hidings.merge(place, 1, Integer::sum);
+            }
+            hidings.forEach((place, count) -> redis.sortedSet(String.class).zincrby(KEY, count, place));
+        } catch (Exception e) {
+            LOGGER.errorf(e, "Unable to record the hiding places of game %s", gameId);
+        }
+    }
+
+    private Counts load() {
+        Map<String, Double> places = new HashMap<>();
+        double total = 0;
+        for (ScoredValue<String> value : redis.sortedSet(String.class).zrangeWithScores(KEY, 0, -1)) {
+            places.put(value.value(), value.score());
+            total += value.score();
+        }
+        return new Counts(Map.copyOf(places), total);
+    }
+
+}
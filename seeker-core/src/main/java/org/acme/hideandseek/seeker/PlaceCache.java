@@ -0,0 +1,78 @@
+package org.acme.hideandseek.seeker;
+
+import io.quarkus.redis.datasource.RedisDataSource;
+import io.quarkus.runtime.Startup;
+import org.acme.hideandseek.strategy.PlaceCoordinates;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Holds the latest {@link PlaceCoordinates}, so the seeker does not read Redis when it moves.
+ * <p>
+ * The place service publishes {@code places} on {@code hide-and-seek/changes} when it writes the places, and the
+ * geo index writes are also caught through the keyspace notifications when the server sends them. Either triggers
+ * a reload; {@code hide-and-seek.places.refresh-interval} is the fallback. A reload returning the same places keeps
+ * the previous instance, with its index and regions.
+ */
+@Startup
+public class PlaceCache {
+
+    private static final String TOPIC_CHANGES = "hide-and-seek/changes";
+    private final static Logger LOGGER = Logger.getLogger("PlaceCache");
+
+    private final PlaceRepository repository;
+    private final int maxMatrix;
+    private final Refresher<PlaceCoordinates> refresher;
+
+    public PlaceCache(RedisDataSource redis, PlaceRepository repository,
+                      @ConfigProperty(name = "hide-and-seek.places.refresh-interval", defaultValue = "5m")
+                      Duration refreshInterval,
+                      @ConfigProperty(name = "hide-and-seek.places.distance-matrix.max-places", defaultValue = "500")
+                      int maxMatrix) {
+        this.repository = repository;
+        this.maxMatrix = maxMatrix;
+        this.refresher = new Refresher<>("places", load(null), this::load, refreshInterval, LOGGER);
+
+        redis.pubsub(String.class).subscribe(TOPIC_CHANGES, change -> {
+            if ("places".equals(change)) {
+                invalidate();
+            }
+        });
+        redis.pubsub(String.class).subscribeToPattern("__keyspace@*__:" + PlaceRepository.GEO_KEY,
+                operation -> invalidate());
+        refresher.start();
+    }
+
+    public PlaceCoordinates current() {
+        return refresher.current();
+    }
+
+    public void invalidate() {
+        refresher.invalidate();
+    }
+
+    private PlaceCoordinates load(PlaceCoordinates previous) {
+        // Sorted by name: the regions are computed from the order of the places, so every seeker instance must
+        // split them the same way whatever the order Redis returns them in
+        var places = repository.getPlaces().stream().sorted(Comparator.comparing(gv -> gv.member)).toList();
+        int size = places.size();
+        double[] longitudes = new double[size];
+        double[] latitudes = new double[size];
+        for (int i = 0; i < size; i++) {
+            longitudes[i] = places.get(i).longitude.orElseThrow();
+            latitudes[i] = places.get(i).latitude.orElseThrow();
+        }
+        List<String> names = places.stream().map(gv -> gv.member).toList();
+        if (previous != null && previous.hasCoordinates(names, longitudes, latitudes)) {
+            LOGGER.debugf("The %d places did not change", size);
+            return previous;
+        }
+        LOGGER.infof("Loaded the coordinates of %d places", size);
+        return new PlaceCoordinates(names, longitudes, latitudes, maxMatrix);
+    }
+
+}
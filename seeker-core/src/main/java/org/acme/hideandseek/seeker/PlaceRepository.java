@@ -2,17 +2,19 @@ package org.acme.hideandseek.seeker;
 
 import io.quarkus.redis.datasource.RedisDataSource;
 import io.quarkus.redis.datasource.geo.GeoSearchArgs;
+import io.quarkus.redis.datasource.geo.GeoValue;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 import static io.quarkus.redis.datasource.geo.GeoUnit.KM;
 
 @Service
 public class PlaceRepository {
 
+    static final String GEO_KEY = "hide-and-seek:geo";
+
     private final RedisDataSource redis;
 
     @ConfigProperty(name = "hide-and-seek.starting-point.radius", defaultValue = "50000")
@@ -25,12 +27,13 @@ public class PlaceRepository {
         this.redis = redis;
     }
 
-    List<String> getPlaceNames() {
-        var list = redis.geo(String.class).geosearch("hide-and-seek:geo",
+    /**
+     * @return the places, with their coordinates
+     */
+    List<GeoValue<String>> getPlaces() {
+        return redis.geo(String.class).geosearch(GEO_KEY,
                 new GeoSearchArgs<String>().fromMember(startingPointName)
-                        .byRadius(startingPointRadius, KM));
-        return list.stream()
-                .map(gv -> gv.member)
-                .collect(Collectors.toList());
+                        .byRadius(startingPointRadius, KM)
+                        .withCoordinates());
     }
 }
@@ -0,0 +1,74 @@
+package org.acme.hideandseek.seeker;
+
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.UnaryOperator;
+
+/**
+ * Holds a value read from Redis, reloaded on its own virtual thread when {@link #invalidate() invalidated} and every
+ * refresh interval. The previous value is kept when a reload fails.
+ *
+ * @param <T> the type of the value
+ */
+final class Refresher<T> implements Runnable {
+
+    private final String name;
+    private final UnaryOperator<T> loader;
+    private final Duration interval;
+    private final Logger logger;
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private volatile T current;
+
+    /**
+     * @param name     what is loaded, for the logs
+     * @param initial  the value until the first reload
+     * @param loader   loads the new value from the previous one, so it can return it when nothing changed
+     * @param interval the maximum time between two reloads
+     */
+    Refresher(String name, T initial, UnaryOperator<T> loader, Duration interval, Logger logger) {
+        this.name = name;
+        this.current = initial;
+        this.loader = loader;
+        this.interval = interval;
+        this.logger = logger;
+    }
+
+    T current() {
+        return current;
+    }
+
+    /**
+     * Requests a reload. Can be called from the I/O thread, the reload happens on the refresher thread.
+     */
+    synchronized void invalidate() {
+        dirty.set(true);
+        notifyAll();
+    }
+
+    void start() {
+        Thread.ofVirtual().name(name + "-refresher").start(this);
+    }
+
+    public void run() {
+        while (true) {
+            try {
+                synchronized (this) {
+                    if (!dirty.get()) {
+                        wait(interval.toMillis());
+                    }
+                }
+                // Cleared before loading, so an invalidation during the load is not lost
+                dirty.set(false);
+                current = loader.apply(current);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.errorf(e, "Unable to reload the %s, keeping the previous copy", name);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,291 @@
+package org.acme.hideandseek.seeker;
+
+import io.quarkus.arc.All;
+import io.quarkus.redis.datasource.RedisDataSource;
+import io.quarkus.redis.datasource.geo.GeoUnit;
+import io.quarkus.runtime.Startup;
+import org.acme.hideandseek.model.Event;
+import org.acme.hideandseek.model.GameEvent;
+import org.acme.hideandseek.model.Player;
+import org.acme.hideandseek.movement.MovementEngine;
+import org.acme.hideandseek.strategy.HistoryStrategy;
+import org.acme.hideandseek.strategy.PlaceCoordinates;
+import org.acme.hideandseek.strategy.RoutePlanner;
+import org.acme.hideandseek.strategy.SeekerStrategy;
+import org.acme.hideandseek.transport.EventQueues;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Plays the seeker in as many games as {@code hide-and-seek.seeker.max-sessions}. Shared by the seeker and the
+ * super seeker services, which only differ by their configuration and strategies.
+ * <p>
+ * {@code hide-and-seek.seeker.strategy} selects the {@link SeekerStrategy} deciding the order in which the places
+ * are visited: {@code random} (default), {@code nearest} (closest place not visited yet), {@code route} (a short
+ * tour computed by the {@link RoutePlanner}), {@code history} (the places most used to hide first, see
+ * {@link HistoryStrategy}), or one provided by the service.
+ * <p>
+ * The seeker starts from {@code hide-and-seek.seeker-initial-position}, or from a random place when it is not set.
+ * Moving 1km at speed 1 takes {@code hide-and-seek.seeker.time-factor} ms.
+ * <p>
+ * The seeker queue is read by a single thread, which routes each event to the session of its game. Each session
+ * is an actor with its own state, mailbox and virtual thread.
+ * While all the sessions are taken, the queue is not read, so the new games wait for a free session here or on
+ * another instance.
+ * <p>
+ * A game can have several seekers, each one searching a region of the places. Their sessions may run on different
+ * instances, so the sessions also end when the game over is broadcast on {@code hide-and-seek/events}.
+ */
+@Startup
+public class Seeker implements Runnable {
+
+    private final static String SEEKER_KEY = "hide-and-seek:seeker";
+    private static final String TOPIC_EVENTS = "hide-and-seek/events";
+    private final static Logger LOGGER = Logger.getLogger("Seeker");
+
+    private final EventQueues queues;
+    private final MovementEngine engine;
+    private final RedisDataSource redis;
+    private final PlaceCache places;
+    private final HidingHistory history;
+    private final SeekerStrategy strategy;
+    private final Optional<String> initialPosition;
+    private final int timeFactor;
+    private final int maxSessions;
+    private final Duration sessionTimeout;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    public Seeker(PlaceCache places, HidingHistory history, @All List<SeekerStrategy> strategies,
+                  RedisDataSource redis, EventQueues queues, MovementEngine engine,
+                  @ConfigProperty(name = "hide-and-seek.seeker-initial-position")
+                  Optional<String> initialPosition,
+                  @ConfigProperty(name = "hide-and-seek.seeker.strategy", defaultValue = "random")
+                  String strategy,
+                  @ConfigProperty(name = "hide-and-seek.seeker.time-factor", defaultValue = "10")
+                  int timeFactor,
+                  @ConfigProperty(name = "hide-and-seek.seeker.max-sessions", defaultValue = "500")
+                  int maxSessions,
+                  @ConfigProperty(name = "hide-and-seek.seeker.session-timeout", defaultValue = "5m")
+                  Duration sessionTimeout) {
+        this.redis = redis;
+        this.places = places;
+        this.history = history;
+        this.strategy = strategies.stream().filter(s -> s.name().equals(strategy)).findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown strategy " + strategy
+                        + ", supported values are " + strategies.stream().map(s -> "'" + s.name() + "'")
+                        .collect(Collectors.joining(", "))));
+        this.queues = queues;
+        this.engine = engine;
+        this.initialPosition = initialPosition;
+        this.timeFactor = timeFactor;
+        this.maxSessions = maxSessions;
+        this.sessionTimeout = sessionTimeout;
+        LOGGER.infof("Starting seeker (strategy: %s, max sessions: %d)", strategy, maxSessions);
+        redis.pubsub(GameEvent.class).subscribe(TOPIC_EVENTS, event -> {
+            if (event.kind == GameEvent.Kind.GAME_OVER) {
+                endGame(event.gameId);
+            }
+        });
+        Thread.ofVirtual().start(this);
+    }
+
+    public void run() {
+        while (true) {
+            try {
+                if (sessions.size() >= maxSessions) {
+                    // Leave the new games in the queue for the other instances until a session ends
+                    Thread.sleep(100);
+                    continue;
+                }
+                for (EventQueues.Delivery delivery : queues.read(Duration.ofSeconds(1), SEEKER_KEY)) {
+                    dispatch(delivery);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                LOGGER.errorf(e, "Unable to read the seeker queue");
+            }
+        }
+    }
+
+    private void dispatch(EventQueues.Delivery delivery) {
+        var event = delivery.event();
+        switch (event.kind) {
+            case GAME_STARTED -> {
+                var started = event.as(Event.GameStartedEvent.class);
+                String key = started.gameId + "/" + started.region;
+                if (sessions.containsKey(key)) {
+                    LOGGER.debugf("Already playing region %d of game %s", started.region, started.gameId);
+                } else if (sessions.size() >= maxSessions) {
+                    // Read in the same batch as the game filling the last session: give it back
+                    LOGGER.infof("Already playing %d games, requeuing game %s", sessions.size(), event.gameId);
+                    queues.push(SEEKER_KEY, event);
+                } else {
+                    Session session = new Session(key, started);
+                    sessions.put(key, session);
+                    session.deliver(delivery);
+                    Thread.ofVirtual().start(session);
+                    return;
+                }
+            }
+            // There is one per seeker, but any instance can read it
+            case GAME_ENDED -> {
+                var ended = event.as(Event.GameEndedEvent.class);
+                if (ended.hiders != null) {
+                    Thread.ofVirtual().start(() -> history.record(ended.gameId, ended.hiders.values()));
+                }
+                endGame(event.gameId);
+            }
+            default -> LOGGER.debugf("Dropping %s event for game %s", event.kind, event.gameId);
+        }
+        queues.ack(delivery);
+    }
+
+    /**
+     * Ends the sessions of the given game running on this instance.
+     */
+    private void endGame(String gameId) {
+        for (Session session : sessions.values()) {
+            if (session.game.equals(gameId)) {
+                session.deliver(new EventQueues.Delivery(SEEKER_KEY, null, new Event.GameEndedEvent(gameId)));
+            }
+        }
+    }
+
+    private class Session implements Runnable {
+
+        private final String key;
+        private final String game;
+        private final Player player;
+        private final int region;
+        private final int regions;
+        private final BlockingQueue<EventQueues.Delivery> mailbox = new LinkedBlockingQueue<>();
+        private String position;
+        private PlaceCoordinates coordinates;
+        private SeekerStrategy.Tour tour;
+        private volatile boolean done;
+
+        Session(String key, Event.GameStartedEvent event) {
+            this.key = key;
+            this.game = event.gameId;
+            this.player = event.seeker;
+            this.region = event.region;
+            this.regions = event.regions;
+        }
+
+        void deliver(EventQueues.Delivery delivery) {
+            mailbox.add(delivery);
+        }
+
+        public void run() {
+            long lastEvent = System.currentTimeMillis();
+            while (!done) {
+                // Actor-Style
+                EventQueues.Delivery delivery;
+                try {
+                    delivery = mailbox.poll(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                if (delivery == null) {
+                    if (System.currentTimeMillis() - lastEvent > sessionTimeout.toMillis()) {
+                        LOGGER.infof("No news from game %s, leaving it", game);
+                        done = true;
+                    }
+                    continue;
+                }
+                lastEvent = System.currentTimeMillis();
+                try {
+                    handle(delivery.event());
+                } catch (Exception e) {
+                    LOGGER.errorf(e, "Unable to handle %s event of game %s", delivery.event().kind, game);
+                }
+                queues.ack(delivery);
+            }
+            sessions.remove(key, this);
+        }
+
+        private void handle(Event event) {
+            switch (event.kind) {
+                case GAME_STARTED -> {
+                    LOGGER.infof("Received game started event (%s). " +
+                            "The seeker is %s (region %d/%d)", game, player.name(), region + 1, regions);
+                    this.coordinates = places.current();
+                    if (regions > 1) {
+                        // The places of the other regions are left to the other seekers
+                        this.coordinates = coordinates.regions(regions)[region];
+                    }
+                    if (coordinates.size() == 0) {
+                        LOGGER.infof("Nothing to search in region %d of game %s", region + 1, game);
+                        return;
+                    }
+                    var random = ThreadLocalRandom.current();
+                    // Without an initial position, start from a random place
+                    this.position = initialPosition
+                            .orElseGet(() -> coordinates.name(random.nextInt(coordinates.size())));
+                    this.tour = strategy.start(coordinates, coordinates.indexOf(position), random);
+                    goToNext();
+                }
+
+                case GAME_ENDED -> {
+                    LOGGER.infof("The game %s is complete", game);
+                    done = true;
+                }
+
+                case SEEKER_ARRIVED -> {
+                    this.position = event.as(Event.SeekerArrivedAtEvent.class).place;
+                    var positionEvent = new Event.SeekerAtPositionEvent(game, this.position, player.name());
+                    queues.push("hide-and-seek:game", positionEvent);
+                    goToNext();
+                }
+            }
+        }
+
+        private void goToNext() {
+            int next = tour.next();
+            if (next >= 0) {
+                goToPlace(coordinates.name(next));
+            }
+        }
+
+        private void goToPlace(String destination) {
+            // Compute the distance between the current position and the picked destination
+            double distance = places.current().distance(position, destination);
+            if (Double.isNaN(distance)) {
+                // Not in the cache yet (or the initial position is outside the search radius)
+                distance = redis.geo(String.class)
+                        .geodist(PlaceRepository.GEO_KEY, position, destination, GeoUnit.KM).orElse(0.0);
+                places.invalidate();
+            }
+            var duration = (int) (distance / player.speed()) * timeFactor;
+            LOGGER.infof("%s (seeker) wants to go from  %s to %s, the distance is %skm, " +
+                    "it will take %sms", player.name(), position, destination, distance, duration);
+
+            // Send the move event
+            queues.push("hide-and-seek:game",
+                    new Event.SeekerMoveEvent(game, this.position, destination, duration, distance, player.name()));
+
+            engine.schedule(duration, () -> {
+                if (!done) {
+                    // The moved event does not need to go through Redis
+                    deliver(new EventQueues.Delivery(SEEKER_KEY, null,
+                            new Event.SeekerArrivedAtEvent(game, destination)));
+                }
+            });
+        }
+    }
+
+}
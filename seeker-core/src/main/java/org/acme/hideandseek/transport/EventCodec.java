@@ -0,0 +1,113 @@
+package org.acme.hideandseek.transport;
+
+import io.quarkus.redis.datasource.codecs.Codec;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+import jakarta.inject.Singleton;
+import org.acme.hideandseek.model.Event;
+import org.acme.hideandseek.model.Player;
+import org.acme.hideandseek.wire.WireFormat;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.lang.reflect.Type;
+
+/**
+ * Encodes the {@link Event}s pushed to the queues.
+ * <p>
+ * {@code hide-and-seek.codec} selects what is written: {@code json} (default) or {@code binary} (see
+ * {@link WireFormat}). Both are always read, so the readers can be upgraded before the writers switch to binary.
+ */
+@Singleton
+public class EventCodec implements Codec {
+
+    private static final byte GAME_STARTED = 1;
+    private static final byte GAME_ENDED = 2;
+    private static final byte TIMES_UP = 3;
+    private static final byte SEEKER_MOVE = 4;
+    private static final byte SEEKER_AT_POSITION = 5;
+    private static final byte SEEKER_ARRIVED = 6;
+
+    private final boolean binary;
+
+    public EventCodec(@ConfigProperty(name = "hide-and-seek.codec", defaultValue = "json") String codec) {
+        this.binary = switch (codec) {
+            case "json" -> false;
+            case "binary" -> true;
+            default -> throw new IllegalArgumentException("Unknown codec " + codec
+                    + ", supported values are 'json' and 'binary'");
+        };
+    }
+
+    @Override
+    public boolean canHandle(Type clazz) {
+        return Event.class.equals(clazz);
+    }
+
+    @Override
+    public byte[] encode(Object item) {
+        if (!binary) {
+            return Json.encodeToBuffer(item).getBytes();
+        }
+        Event event = (Event) item;
+        return switch (event.kind) {
+            case GAME_STARTED -> {
+                var started = event.as(Event.GameStartedEvent.class);
+                Player seeker = started.seeker;
+                // Same layout as the game service, which also sends the id and picture of the seeker
+                yield new WireFormat.Writer(GAME_STARTED).writeString(event.gameId)
+                        .writeString(null).writeString(seeker.name()).writeString(null)
+                        .writeLong(seeker.speed())
+                        .writeLong(started.region).writeLong(started.regions)
+                        .toByteArray();
+            }
+            case GAME_ENDED -> new WireFormat.Writer(GAME_ENDED).writeString(event.gameId)
+                    .writeMap(event.as(Event.GameEndedEvent.class).hiders)
+                    .toByteArray();
+            case TIMES_UP -> new WireFormat.Writer(TIMES_UP).writeString(event.gameId).toByteArray();
+            case SEEKER_MOVE -> {
+                var move = event.as(Event.SeekerMoveEvent.class);
+                yield new WireFormat.Writer(SEEKER_MOVE).writeString(event.gameId)
+                        .writeString(move.origin).writeString(move.destination)
+                        .writeLong(move.duration).writeDouble(move.distance)
+                        .writeString(move.seeker)
+                        .toByteArray();
+            }
+            case SEEKER_AT_POSITION -> {
+                var position = event.as(Event.SeekerAtPositionEvent.class);
+                yield new WireFormat.Writer(SEEKER_AT_POSITION).writeString(event.gameId)
+                        .writeString(position.place).writeString(position.seeker)
+                        .toByteArray();
+            }
+            case SEEKER_ARRIVED -> new WireFormat.Writer(SEEKER_ARRIVED).writeString(event.gameId)
+                    .writeString(event.as(Event.SeekerArrivedAtEvent.class).place)
+                    .toByteArray();
+        };
+    }
+
+    @Override
+    public Event decode(byte[] payload) {
+        if (!WireFormat.isBinary(payload)) {
+            return Json.decodeValue(Buffer.buffer(payload), Event.class);
+        }
+        var reader = new WireFormat.Reader(payload);
+        byte type = reader.readType();
+        String gameId = reader.readString();
+        return switch (type) {
+            case GAME_STARTED -> {
+                reader.readString(); // id
+                String name = reader.readString();
+                reader.readString(); // picture
+                var seeker = new Player(name, reader.readInt());
+                yield new Event.GameStartedEvent(gameId, seeker, reader.readInt(), reader.readInt());
+            }
+            case GAME_ENDED -> new Event.GameEndedEvent(gameId, reader.readMap());
+            case TIMES_UP -> new Event.TimesUpEvent(gameId);
+            case SEEKER_MOVE -> new Event.SeekerMoveEvent(gameId, reader.readString(), reader.readString(),
+                    reader.readLong(), reader.readDouble(), reader.readString());
+            case SEEKER_AT_POSITION -> new Event.SeekerAtPositionEvent(gameId, reader.readString(), reader.readString());
+            case SEEKER_ARRIVED -> new Event.SeekerArrivedAtEvent(gameId, reader.readString());
+            default -> throw new IllegalArgumentException("Unknown event type " + type);
+        };
+    }
+
+}
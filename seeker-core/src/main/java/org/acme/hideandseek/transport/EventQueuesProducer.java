@@ -0,0 +1,42 @@
+package org.acme.hideandseek.transport;
+
+import io.quarkus.redis.datasource.RedisDataSource;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Exposes the {@link EventQueues} selected with {@code hide-and-seek.transport}.
+ */
+@Singleton
+public class EventQueuesProducer {
+
+    @Produces
+    @Singleton
+    EventQueues queues(RedisDataSource redis, EventCodec codec,
+                       @ConfigProperty(name = "hide-and-seek.transport", defaultValue = "list")
+                       String transport,
+                       @ConfigProperty(name = "hide-and-seek.transport.group", defaultValue = "seeker")
+                       String group,
+                       @ConfigProperty(name = "hide-and-seek.transport.consumer")
+                       Optional<String> consumer,
+                       @ConfigProperty(name = "hide-and-seek.transport.batch-size", defaultValue = "50")
+                       int batchSize,
+                       @ConfigProperty(name = "hide-and-seek.transport.max-length", defaultValue = "100000")
+                       long maxLength,
+                       @ConfigProperty(name = "hide-and-seek.transport.claim-after", defaultValue = "30s")
+                       Duration claimAfter) {
+        return switch (transport) {
+            case "list" -> new ListEventQueues(redis, codec);
+            case "stream" -> new StreamEventQueues(redis, group,
+                    consumer.orElseGet(() -> UUID.randomUUID().toString()), batchSize, maxLength, claimAfter, codec);
+            default -> throw new IllegalArgumentException("Unknown transport " + transport
+                    + ", supported values are 'list' and 'stream'");
+        };
+    }
+
+}
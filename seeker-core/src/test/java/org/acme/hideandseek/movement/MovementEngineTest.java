@@ -0,0 +1,112 @@
+package org.acme.hideandseek.movement;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+class MovementEngineTest {
+
+    @Test
+    void testArrivalsFireByDueTimeThenFifo() throws InterruptedException {
+        var clock = Clock.virtual();
+        var engine = new MovementEngine(clock);
+        List<String> fired = new CopyOnWriteArrayList<>();
+        var done = new CountDownLatch(4);
+
+        // Hold the engine thread, so all the arrivals are queued before the first one fires
+        var release = block(engine);
+        schedule(engine, 100, "a", fired, done);
+        schedule(engine, 50, "b", fired, done);
+        schedule(engine, 100, "c", fired, done);
+        schedule(engine, 50, "d", fired, done);
+        release.countDown();
+
+        Assertions.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(List.of("b", "d", "a", "c"), fired);
+    }
+
+    @Test
+    void testVirtualClockAdvancesWithTheArrivals() throws InterruptedException {
+        var clock = Clock.virtual();
+        long origin = clock.now();
+        var engine = new MovementEngine(clock);
+        List<Long> times = new CopyOnWriteArrayList<>();
+
+        var release = block(engine);
+        var done = new CountDownLatch(3);
+        for (long duration : new long[]{300, 100, 200}) {
+            engine.schedule(duration, () -> {
+                times.add(clock.now() - origin);
+                done.countDown();
+            });
+        }
+        release.countDown();
+        Assertions.assertTrue(done.await(5, TimeUnit.SECONDS));
+        // Each arrival sees the clock at its due time, without any wait
+        Assertions.assertEquals(List.of(100L, 200L, 300L), times);
+        Assertions.assertEquals(origin + 300, clock.now());
+
+        // A move scheduled now starts from the advanced clock
+        var next = new CountDownLatch(1);
+        engine.schedule(50, () -> {
+            times.add(clock.now() - origin);
+            next.countDown();
+        });
+        Assertions.assertTrue(next.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(List.of(100L, 200L, 300L, 350L), times);
+    }
+
+    @Test
+    void testVirtualClockNeverGoesBack() {
+        var clock = Clock.virtual();
+        long origin = clock.now();
+        clock.reached(origin + 1_000);
+        clock.reached(origin + 500);
+        Assertions.assertEquals(origin + 1_000, clock.now());
+        Assertions.assertTrue(clock.nanosUntil(origin + 10_000) <= 0);
+    }
+
+    @Test
+    void testCloserArrivalWakesTheEngine() throws InterruptedException {
+        // Real time: the engine waits for the first arrival, an hour away
+        var engine = new MovementEngine(Clock.scaled(1));
+        var late = new CountDownLatch(1);
+        var early = new CountDownLatch(1);
+        engine.schedule(3_600_000, late::countDown);
+        // Give the engine time to start waiting
+        Thread.sleep(50);
+
+        engine.schedule(10, early::countDown);
+        Assertions.assertTrue(early.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, late.getCount());
+    }
+
+    private static void schedule(MovementEngine engine, long duration, String name, List<String> fired,
+                                 CountDownLatch done) {
+        engine.schedule(duration, () -> {
+            fired.add(name);
+            done.countDown();
+        });
+    }
+
+    // Schedules an arrival blocking the engine thread until the returned latch is released
+    private static CountDownLatch block(MovementEngine engine) throws InterruptedException {
+        var release = new CountDownLatch(1);
+        var blocked = new CountDownLatch(1);
+        engine.schedule(0, () -> {
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Assertions.assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        return release;
+    }
+
+}
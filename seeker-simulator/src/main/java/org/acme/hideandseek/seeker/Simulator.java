@@ -0,0 +1,150 @@
+package org.acme.hideandseek.seeker;
+
+import io.quarkus.arc.All;
+import io.quarkus.runtime.QuarkusApplication;
+import io.quarkus.runtime.annotations.QuarkusMain;
+import org.acme.hideandseek.strategy.PlaceCoordinates;
+import org.acme.hideandseek.strategy.SeekerStrategy;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Plays {@code hide-and-seek.simulator.games} games per seeker strategy, without Redis, and prints how they
+ * compare: game duration, hops, and the Redis commands and round trips the services would have needed.
+ * <p>
+ * The places are read from the place service import script, or generated randomly when
+ * {@code hide-and-seek.simulator.random-places} is set.
+ */
+@QuarkusMain
+public class Simulator implements QuarkusApplication {
+
+    private final static Logger LOGGER = Logger.getLogger("Simulator");
+    private static final Pattern PLACE = Pattern.compile(
+            "\"name\"\\s*:\\s*\"([^\"]+)\".*\"coordinates\"\\s*:\\s*\"([-0-9.]+),([-0-9.]+)\"");
+
+    private final List<SeekerStrategy> strategies;
+
+    @ConfigProperty(name = "hide-and-seek.simulator.games", defaultValue = "100000")
+    int games;
+
+    @ConfigProperty(name = "hide-and-seek.simulator.seed", defaultValue = "42")
+    long seed;
+
+    @ConfigProperty(name = "hide-and-seek.simulator.strategies", defaultValue = "random,nearest,route")
+    List<String> selected;
+
+    // 0 to use all the cores
+    @ConfigProperty(name = "hide-and-seek.simulator.parallelism", defaultValue = "0")
+    int parallelism;
+
+    @ConfigProperty(name = "hide-and-seek.simulator.places",
+            defaultValue = "../place-service/src/main/resources/import.redis")
+    String placesFile;
+
+    @ConfigProperty(name = "hide-and-seek.simulator.random-places", defaultValue = "0")
+    int randomPlaces;
+
+    @ConfigProperty(name = "hide-and-seek.simulator.hiders", defaultValue = "4")
+    int hiders;
+
+    // The players of the player service
+    @ConfigProperty(name = "hide-and-seek.simulator.seeker-speeds", defaultValue = "15,8,10,5,2")
+    int[] speeds;
+
+    @ConfigProperty(name = "hide-and-seek.simulator.time-factor", defaultValue = "10")
+    int timeFactor;
+
+    @ConfigProperty(name = "hide-and-seek.game-duration", defaultValue = "10s")
+    Duration gameDuration;
+
+    @ConfigProperty(name = "hide-and-seek.game.compound-discovery", defaultValue = "false")
+    boolean compoundDiscovery;
+
+    @ConfigProperty(name = "hide-and-seek.seeker-initial-position", defaultValue = "Paris")
+    String initialPosition;
+
+    @ConfigProperty(name = "hide-and-seek.places.distance-matrix.max-places", defaultValue = "500")
+    int maxMatrix;
+
+    public Simulator(@All List<SeekerStrategy> strategies) {
+        this.strategies = strategies;
+    }
+
+    @Override
+    public int run(String... args) throws Exception {
+        PlaceCoordinates places = randomPlaces > 0 ? generatePlaces() : readPlaces();
+        if (places.size() == 0) {
+            LOGGER.errorf("No places to play with");
+            return 1;
+        }
+        var tournament = new Tournament(places, new Tournament.Settings(seed, hiders, speeds,
+                places.indexOf(initialPosition), timeFactor, gameDuration.toMillis(), compoundDiscovery));
+        var pool = parallelism > 0 ? new ForkJoinPool(parallelism) : ForkJoinPool.commonPool();
+        LOGGER.infof("Playing %d games per strategy over %d places with %d hiders (seed: %d, parallelism: %d)",
+                games, places.size(), hiders, seed, pool.getParallelism());
+
+        List<Tournament.Report> reports = new ArrayList<>();
+        for (String name : selected) {
+            var strategy = strategies.stream().filter(s -> s.name().equals(name)).findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown strategy " + name));
+            reports.add(tournament.play(strategy, games, pool));
+        }
+
+        System.out.printf("%-10s %12s %12s %10s %9s %10s %12s %12s %10s%n",
+                "strategy", "mean (ms)", "p95 (ms)", "mean hops", "p95 hops", "times up", "redis cmds",
+                "round trips", "run (ms)");
+        for (var report : reports) {
+            System.out.printf("%-10s %12.1f %12d %10.2f %9d %9.1f%% %12.1f %12.1f %10d%n",
+                    report.strategy(), report.meanDuration(), report.p95Duration(), report.meanHops(),
+                    report.p95Hops(), report.timedOut() * 100, report.meanCommands(), report.meanRoundTrips(),
+                    report.elapsed());
+        }
+        return 0;
+    }
+
+    private PlaceCoordinates readPlaces() throws IOException {
+        List<String> names = new ArrayList<>();
+        List<double[]> coordinates = new ArrayList<>();
+        for (String line : Files.readAllLines(Path.of(placesFile))) {
+            Matcher matcher = PLACE.matcher(line);
+            if (matcher.find()) {
+                names.add(matcher.group(1));
+                coordinates.add(new double[]{Double.parseDouble(matcher.group(2)),
+                        Double.parseDouble(matcher.group(3))});
+            }
+        }
+        double[] longitudes = new double[names.size()];
+        double[] latitudes = new double[names.size()];
+        for (int i = 0; i < names.size(); i++) {
+            longitudes[i] = coordinates.get(i)[0];
+            latitudes[i] = coordinates.get(i)[1];
+        }
+        return new PlaceCoordinates(names, longitudes, latitudes, maxMatrix);
+    }
+
+    private PlaceCoordinates generatePlaces() {
+        var random = new SplittableRandom(seed);
+        List<String> names = new ArrayList<>(randomPlaces);
+        double[] longitudes = new double[randomPlaces];
+        double[] latitudes = new double[randomPlaces];
+        for (int i = 0; i < randomPlaces; i++) {
+            names.add("place-" + i);
+            longitudes[i] = random.nextDouble(-180, 180);
+            // Stay away from the poles, like the real places
+            latitudes[i] = random.nextDouble(-60, 70);
+        }
+        return new PlaceCoordinates(names, longitudes, latitudes, maxMatrix);
+    }
+
+}
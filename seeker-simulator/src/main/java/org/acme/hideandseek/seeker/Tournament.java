@@ -0,0 +1,237 @@
+package org.acme.hideandseek.seeker;
+
+import org.acme.hideandseek.strategy.PlaceCoordinates;
+import org.acme.hideandseek.strategy.SeekerStrategy;
+
+import java.io.Serial;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Plays seeded games of hide and seek in memory, with the same rules as the game service.
+ * <p>
+ * Game {@code i} only depends on the seed and on {@code i}: every strategy plays the same games (same seeker, same
+ * hiding places), whatever the number of threads.
+ */
+final class Tournament {
+
+    private static final int CHUNK = 1024;
+
+    private final PlaceCoordinates places;
+    private final Settings settings;
+
+    /**
+     * @param seed              the seed of the games
+     * @param hiders            the number of hiders per game
+     * @param speeds            the speeds of the players, the seeker is picked randomly for each game
+     * @param start             the index of the starting position of the seeker, -1 if it is not a known place
+     * @param timeFactor        the time (in ms) to travel 1km at speed 1
+     * @param maxDuration       the duration of a game (in ms) after which the time is up
+     * @param compoundDiscovery {@code true} if the game service reports the hiders found at a place in one event
+     */
+    record Settings(long seed, int hiders, int[] speeds, int start, int timeFactor, long maxDuration,
+                    boolean compoundDiscovery) {
+    }
+
+    /**
+     * The results of a strategy. Durations are in ms.
+     */
+    record Report(String strategy, int games, double meanDuration, long p95Duration, double meanHops, int p95Hops,
+                  double timedOut, double meanCommands, double meanRoundTrips, long elapsed) {
+    }
+
+    /**
+     * Counts the Redis commands a game would send, and the round trips: the commands emitted by one step of the
+     * game actor are sent in one pipeline, like the game service does.
+     */
+    static final class Traffic {
+
+        private long commands;
+        private long roundTrips;
+        private int pending;
+
+        /**
+         * Adds commands to the current pipeline.
+         */
+        Traffic add(int count) {
+            pending += count;
+            return this;
+        }
+
+        /**
+         * Sends the current pipeline, if there is anything in it.
+         */
+        void flush() {
+            if (pending > 0) {
+                commands += pending;
+                roundTrips++;
+                pending = 0;
+            }
+        }
+
+        /**
+         * Sends a command on its own.
+         */
+        void send() {
+            add(1).flush();
+        }
+
+        long commands() {
+            return commands;
+        }
+
+        long roundTrips() {
+            return roundTrips;
+        }
+    }
+
+    Tournament(PlaceCoordinates places, Settings settings) {
+        this.places = places;
+        this.settings = settings;
+    }
+
+    Report play(SeekerStrategy strategy, int games, ForkJoinPool pool) {
+        long begin = System.currentTimeMillis();
+        long[] durations = new long[games];
+        int[] hops = new int[games];
+        long[] commands = new long[games];
+        long[] roundTrips = new long[games];
+        boolean[] timedOut = new boolean[games];
+        pool.invoke(new Chunk(strategy, 0, games, durations, hops, commands, roundTrips, timedOut));
+
+        long totalDuration = 0;
+        long totalHops = 0;
+        long totalCommands = 0;
+        long totalRoundTrips = 0;
+        int timeouts = 0;
+        for (int i = 0; i < games; i++) {
+            totalDuration += durations[i];
+            totalHops += hops[i];
+            totalCommands += commands[i];
+            totalRoundTrips += roundTrips[i];
+            if (timedOut[i]) {
+                timeouts++;
+            }
+        }
+        Arrays.sort(durations);
+        Arrays.sort(hops);
+        int p95 = Math.max(0, (int) Math.ceil(games * 0.95) - 1);
+        return new Report(strategy.name(), games,
+                (double) totalDuration / games, durations[p95],
+                (double) totalHops / games, hops[p95],
+                (double) timeouts / games, (double) totalCommands / games, (double) totalRoundTrips / games,
+                System.currentTimeMillis() - begin);
+    }
+
+    private final class Chunk extends RecursiveAction {
+
+        // Never serialized, only run in the pool
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient SeekerStrategy strategy;
+        private final int from;
+        private final int to;
+        private final long[] durations;
+        private final int[] hops;
+        private final long[] commands;
+        private final long[] roundTrips;
+        private final boolean[] timedOut;
+
+        Chunk(SeekerStrategy strategy, int from, int to, long[] durations, int[] hops, long[] commands,
+              long[] roundTrips, boolean[] timedOut) {
+            this.strategy = strategy;
+            this.from = from;
+            this.to = to;
+            this.durations = durations;
+            this.hops = hops;
+            this.commands = commands;
+            this.roundTrips = roundTrips;
+            this.timedOut = timedOut;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CHUNK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Chunk(strategy, from, middle, durations, hops, commands, roundTrips, timedOut),
+                        new Chunk(strategy, middle, to, durations, hops, commands, roundTrips, timedOut));
+                return;
+            }
+            int[] hidden = new int[places.size()];
+            for (int game = from; game < to; game++) {
+                Arrays.fill(hidden, 0);
+                playGame(game, hidden);
+            }
+        }
+
+        private void playGame(int game, int[] hidden) {
+            // The seed is mixed, so consecutive games are not correlated
+            var random = new SplittableRandom(settings.seed() ^ (game * 0x9E3779B97F4A7C15L));
+            int speed = settings.speeds()[random.nextInt(settings.speeds().length)];
+            for (int i = 0; i < settings.hiders(); i++) {
+                hidden[random.nextInt(places.size())]++;
+            }
+            int undiscovered = settings.hiders();
+
+            var tour = strategy.start(places, settings.start(), random);
+            int position = settings.start();
+            long time = 0;
+            int moves = 0;
+            // Same pipelines as the game service, with a single seeker and the list queues (one BLPOP per read)
+            var traffic = new Traffic();
+            // GAME_STARTED push and NEW_GAME publish, then the times-up ZADD and the seeker read
+            traffic.add(2).flush();
+            traffic.send();
+            traffic.send();
+            while (undiscovered > 0) {
+                int next = tour.next();
+                if (next < 0) {
+                    break;
+                }
+                // Moving from an unknown starting position is free
+                double distance = position < 0 ? 0 : places.distance(position, next);
+                // Same rounding as the seeker service
+                time += (long) (int) (distance / speed) * settings.timeFactor();
+                if (time >= settings.maxDuration()) {
+                    break;
+                }
+                moves++;
+                // SEEKER_MOVE push and read, then its publish
+                traffic.send();
+                traffic.send();
+                traffic.send();
+                // SEEKER_AT_POSITION push and read, then the discoveries in one pipeline
+                traffic.send();
+                traffic.send();
+                position = next;
+                if (hidden[next] > 0) {
+                    undiscovered -= hidden[next];
+                    traffic.add(settings.compoundDiscovery() ? 1 : hidden[next]);
+                    hidden[next] = 0;
+                }
+                if (undiscovered > 0) {
+                    traffic.flush();
+                }
+            }
+            if (undiscovered > 0) {
+                // TIMES_UP read
+                traffic.send();
+            }
+            // GAME_ENDED push and GAME_OVER publish, with the last discoveries, then the times-up ZREM and the
+            // seeker read
+            traffic.add(2).flush();
+            traffic.send();
+            traffic.send();
+
+            timedOut[game] = undiscovered > 0;
+            durations[game] = undiscovered > 0 ? settings.maxDuration() : time;
+            hops[game] = moves;
+            commands[game] = traffic.commands();
+            roundTrips[game] = traffic.roundTrips();
+        }
+    }
+
+}
@@ -0,0 +1,30 @@
+package org.acme.hideandseek.strategy;
+
+import java.util.Map;
+
+/**
+ * Tells how often each place has been used to hide, for the {@link HistoryStrategy}.
+ * <p>
+ * The seeker service counts the hiding places of the finished games in Redis. The other applications may have no
+ * history.
+ */
+public interface HidingCounts {
+
+    /**
+     * @return the latest counts, never {@code null}
+     */
+    Counts current();
+
+    /**
+     * The number of hiders seen at each place, and in total.
+     */
+    record Counts(Map<String, Double> places, double total) {
+
+        public static final Counts EMPTY = new Counts(Map.of(), 0);
+
+        public double of(String place) {
+            return places.getOrDefault(place, 0.0);
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+package org.acme.hideandseek.strategy;
+
+import jakarta.enterprise.inject.Instance;
+import org.springframework.stereotype.Service;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Goes first where hiders are likely to be found quickly: the next place is the one maximizing the probability of
+ * hiding there (from the {@link HidingCounts}) divided by the distance to get there.
+ * <p>
+ * Probabilities are smoothed ({@code (count + 1) / (total + places)}), so places never used to hide yet are still
+ * visited, and the strategy behaves like {@code nearest} until some games have been played.
+ */
+@Service
+public class HistoryStrategy implements SeekerStrategy {
+
+    // Avoids dividing by 0, and favours the probability over the distance for very close places
+    private static final double DISTANCE_OFFSET_KM = 1.0;
+
+    private final HidingCounts history;
+
+    public HistoryStrategy(Instance<HidingCounts> history) {
+        // Without a history (e.g. in the simulator), all the places are as likely
+        this.history = history.isResolvable() ? history.get() : () -> HidingCounts.Counts.EMPTY;
+    }
+
+    @Override
+    public String name() {
+        return "history";
+    }
+
+    @Override
+    public Tour start(PlaceCoordinates places, int start, RandomGenerator random) {
+        int size = places.size();
+        if (size == 0) {
+            return () -> -1;
+        }
+        var counts = history.current();
+        double[] probabilities = new double[size];
+        for (int i = 0; i < size; i++) {
+            probabilities[i] = (counts.of(places.name(i)) + 1) / (counts.total() + size);
+        }
+        // Without a known position, start at the most likely place
+        int first = start;
+        if (first < 0) {
+            first = 0;
+            for (int i = 1; i < size; i++) {
+                if (probabilities[i] > probabilities[first]) {
+                    first = i;
+                }
+            }
+        }
+        int origin = first;
+        return new Tour() {
+            private final boolean[] visited = new boolean[size];
+            private int position = origin;
+
+            @Override
+            public int next() {
+                int best = -1;
+                if (!visited[position]) {
+                    best = position;
+                } else {
+                    double bestScore = -1;
+                    for (int candidate = 0; candidate < size; candidate++) {
+                        if (!visited[candidate]) {
+                            double score = probabilities[candidate]
+                                    / (places.distance(position, candidate) + DISTANCE_OFFSET_KM);
+                            if (score > bestScore) {
+                                bestScore = score;
+                                best = candidate;
+                            }
+                        }
+                    }
+                }
+                if (best >= 0) {
+                    visited[best] = true;
+                    position = best;
+                }
+                return best;
+            }
+        };
+    }
+
+}
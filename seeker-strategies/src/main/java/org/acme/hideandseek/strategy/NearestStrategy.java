@@ -0,0 +1,43 @@
+package org.acme.hideandseek.strategy;
+
+import org.springframework.stereotype.Service;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Always goes to the closest place not visited yet, found with the {@link PlaceIndex}. The starting position is
+ * visited first.
+ */
+@Service
+public class NearestStrategy implements SeekerStrategy {
+
+    @Override
+    public String name() {
+        return "nearest";
+    }
+
+    @Override
+    public Tour start(PlaceCoordinates places, int start, RandomGenerator random) {
+        if (places.size() == 0) {
+            return () -> -1;
+        }
+        // Without a known position, start anywhere
+        int first = start >= 0 ? start : random.nextInt(places.size());
+        PlaceIndex index = places.index();
+        return new Tour() {
+            private final PlaceIndex.Visits visits = index.newVisits();
+            private int position = first;
+
+            @Override
+            public int next() {
+                int closest = visits.isVisited(position) ? index.nearestUnvisited(position, visits) : position;
+                if (closest >= 0) {
+                    visits.visit(closest);
+                    position = closest;
+                }
+                return closest;
+            }
+        };
+    }
+
+}
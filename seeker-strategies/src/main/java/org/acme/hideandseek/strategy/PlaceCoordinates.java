@@ -0,0 +1,223 @@
+package org.acme.hideandseek.strategy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An immutable copy of the place coordinates, to compute the distances locally.
+ * <p>
+ * Coordinates are kept in primitive arrays, in radians. Distances use the haversine formula with the Earth radius
+ * used by Redis, so they match {@code GEODIST}. For small place sets, all the distances are computed upfront.
+ * The {@link #index() index} and the {@link #regions(int) regions} are computed when first needed, and kept with
+ * the coordinates.
+ */
+public final class PlaceCoordinates {
+
+    // Same value as Redis (geohash_helper.c)
+    public static final double EARTH_RADIUS_KM = 6372.797560856;
+
+    private final List<String> names;
+    private final Map<String, Integer> indexes;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double[] cosLatitudes;
+    // Row-major, null when there are too many places
+    private final double[] matrix;
+    private final int maxMatrix;
+    private final Map<Integer, PlaceCoordinates[]> regions = new ConcurrentHashMap<>();
+    private volatile PlaceIndex index;
+
+    /**
+     * @param names      the place names
+     * @param longitudes the longitudes, in degrees
+     * @param latitudes  the latitudes, in degrees
+     * @param maxMatrix  the maximum number of places for which the distance matrix is computed
+     */
+    public PlaceCoordinates(List<String> names, double[] longitudes, double[] latitudes, int maxMatrix) {
+        this(names, new double[][]{toRadians(longitudes), toRadians(latitudes)}, maxMatrix);
+    }
+
+    private PlaceCoordinates(List<String> names, double[][] radians, int maxMatrix) {
+        int size = names.size();
+        this.names = List.copyOf(names);
+        this.indexes = new HashMap<>(size * 2);
+        this.longitudes = radians[0];
+        this.latitudes = radians[1];
+        this.cosLatitudes = new double[size];
+        this.maxMatrix = maxMatrix;
+        for (int i = 0; i < size; i++) {
+            indexes.put(names.get(i), i);
+            this.cosLatitudes[i] = Math.cos(this.latitudes[i]);
+        }
+
+        if (size <= maxMatrix) {
+            this.matrix = new double[size * size];
+            for (int i = 0; i < size; i++) {
+                for (int j = i + 1; j < size; j++) {
+                    double d = haversine(i, j);
+                    matrix[i * size + j] = d;
+                    matrix[j * size + i] = d;
+                }
+            }
+        } else {
+            this.matrix = null;
+        }
+    }
+
+    public List<String> names() {
+        return names;
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * @return the index of the place, -1 if unknown
+     */
+    public int indexOf(String name) {
+        return indexes.getOrDefault(name, -1);
+    }
+
+    public String name(int index) {
+        return names.get(index);
+    }
+
+    /**
+     * @return the longitude of the place, in degrees
+     */
+    public double longitude(int index) {
+        return Math.toDegrees(longitudes[index]);
+    }
+
+    /**
+     * @return the latitude of the place, in degrees
+     */
+    public double latitude(int index) {
+        return Math.toDegrees(latitudes[index]);
+    }
+
+    /**
+     * @param longitudes the longitudes, in degrees
+     * @param latitudes  the latitudes, in degrees
+     * @return {@code true} if these are the places, in the same order, with the same coordinates
+     */
+    public boolean hasCoordinates(List<String> names, double[] longitudes, double[] latitudes) {
+        if (!this.names.equals(names)) {
+            return false;
+        }
+        for (int i = 0; i < names.size(); i++) {
+            if (this.longitudes[i] != Math.toRadians(longitudes[i])
+                    || this.latitudes[i] != Math.toRadians(latitudes[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the distance in km, {@code NaN} if one of the places is unknown
+     */
+    public double distance(String from, String to) {
+        int i = indexOf(from);
+        int j = indexOf(to);
+        if (i < 0 || j < 0) {
+            return Double.NaN;
+        }
+        return distance(i, j);
+    }
+
+    /**
+     * @return the distance in km between the places at the given indexes
+     */
+    public double distance(int i, int j) {
+        if (matrix != null) {
+            return matrix[i * names.size() + j];
+        }
+        return haversine(i, j);
+    }
+
+    /**
+     * @param count the number of regions
+     * @return the places split into {@code count} geographical regions (see {@link Regions})
+     */
+    public PlaceCoordinates[] regions(int count) {
+        return regions.computeIfAbsent(count, this::partition);
+    }
+
+    /**
+     * @return the k-d tree of the places, to find the closest ones without computing all the distances
+     */
+    public PlaceIndex index() {
+        PlaceIndex result = index;
+        if (result == null) {
+            synchronized (this) {
+                result = index;
+                if (result == null) {
+                    result = new PlaceIndex(this);
+                    index = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the x, y and z coordinates of the places on the unit sphere
+     */
+    double[][] points() {
+        int size = names.size();
+        double[][] points = new double[3][size];
+        for (int i = 0; i < size; i++) {
+            points[0][i] = cosLatitudes[i] * Math.cos(longitudes[i]);
+            points[1][i] = cosLatitudes[i] * Math.sin(longitudes[i]);
+            points[2][i] = Math.sin(latitudes[i]);
+        }
+        return points;
+    }
+
+    private PlaceCoordinates[] partition(int count) {
+        int size = names.size();
+        double[][] points = points();
+        int[] membership = Regions.partition(points[0], points[1], points[2], count);
+
+        PlaceCoordinates[] result = new PlaceCoordinates[count];
+        for (int region = 0; region < count; region++) {
+            List<String> members = new ArrayList<>();
+            List<Integer> indexes = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                if (membership[i] == region) {
+                    members.add(names.get(i));
+                    indexes.add(i);
+                }
+            }
+            double[] lon = new double[members.size()];
+            double[] lat = new double[members.size()];
+            for (int i = 0; i < lon.length; i++) {
+                lon[i] = longitudes[indexes.get(i)];
+                lat[i] = latitudes[indexes.get(i)];
+            }
+            result[region] = new PlaceCoordinates(members, new double[][]{lon, lat}, maxMatrix);
+        }
+        return result;
+    }
+
+    private static double[] toRadians(double[] degrees) {
+        double[] radians = new double[degrees.length];
+        for (int i = 0; i < degrees.length; i++) {
+            radians[i] = Math.toRadians(degrees[i]);
+        }
+        return radians;
+    }
+
+    private double haversine(int i, int j) {
+        double u = Math.sin((latitudes[j] - latitudes[i]) / 2);
+        double v = Math.sin((longitudes[j] - longitudes[i]) / 2);
+        double a = u * u + cosLatitudes[i] * cosLatitudes[j] * v * v;
+        return 2.0 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+
+}
@@ -0,0 +1,227 @@
+package org.acme.hideandseek.strategy;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * An in-memory index to find the closest place not visited yet, built by {@link PlaceCoordinates#index()}.
+ * <p>
+ * Places are points on the unit sphere, stored in a k-d tree laid out in an array: the straight-line distance
+ * between two points grows with their great-circle distance, so the closest point is also the closest place.
+ * The places visited during a game are tracked by {@link Visits}, which can also tell whether a subtree still has
+ * places to visit, so fully visited parts of the tree are skipped.
+ */
+public final class PlaceIndex {
+
+    private final int size;
+    // Coordinates of the places, on the unit sphere
+    private final double[] x;
+    private final double[] y;
+    private final double[] z;
+    // The k-d tree: the place at each position, and the position of each place
+    private final int[] tree;
+    private final int[] positions;
+
+    PlaceIndex(PlaceCoordinates places) {
+        this.size = places.size();
+        double[][] points = places.points();
+        this.x = points[0];
+        this.y = points[1];
+        this.z = points[2];
+        this.tree = new int[size];
+        for (int i = 0; i < size; i++) {
+            tree[i] = i;
+        }
+        build(0, size, 0);
+        this.positions = new int[size];
+        for (int p = 0; p < size; p++) {
+            positions[tree[p]] = p;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Visits newVisits() {
+        return new Visits();
+    }
+
+    /**
+     * @return the closest place not visited yet, -1 if all the places have been visited
+     */
+    public int nearestUnvisited(int from, Visits visits) {
+        var search = new Search(from, visits, 1);
+        search.visit(0, size(), 0);
+        return search.count == 0 ? -1 : search.best[0];
+    }
+
+    /**
+     * @return the {@code k} closest places (or fewer if there are not enough), closest first
+     */
+    public int[] nearest(int from, int k) {
+        if (k <= 0) {
+            return new int[0];
+        }
+        var search = new Search(from, null, Math.min(k, size()));
+        search.visit(0, size(), 0);
+        return Arrays.copyOf(search.best, search.count);
+    }
+
+    private double coordinate(int place, int axis) {
+        return switch (axis) {
+            case 0 -> x[place];
+            case 1 -> y[place];
+            default -> z[place];
+        };
+    }
+
+    private double squaredChord(int a, int b) {
+        double dx = x[a] - x[b];
+        double dy = y[a] - y[b];
+        double dz = z[a] - z[b];
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    // Puts the median of tree[lo..hi) on the axis at the middle, the smaller ones before, then recurses
+    private void build(int lo, int hi, int depth) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        int axis = depth % 3;
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, axis);
+        build(lo, mid, depth + 1);
+        build(mid + 1, hi, depth + 1);
+    }
+
+    private void select(int left, int right, int k, int axis) {
+        while (right > left) {
+            double pivot = coordinate(tree[(left + right) >>> 1], axis);
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (coordinate(tree[i], axis) < pivot) {
+                    i++;
+                }
+                while (coordinate(tree[j], axis) > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int tmp = tree[i];
+                    tree[i++] = tree[j];
+                    tree[j--] = tmp;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    // Keeps the k closest candidates, sorted by distance
+    private final class Search {
+        private final int from;
+        // null to consider all the places
+        private final Visits visits;
+        private final int[] best;
+        private final double[] distances;
+        private int count;
+        // Distance of the k-th candidate, anything further can be skipped
+        private double bestDistance = Double.MAX_VALUE;
+
+        Search(int from, Visits visits, int k) {
+            this.from = from;
+            this.visits = visits;
+            this.best = new int[k];
+            this.distances = new double[k];
+        }
+
+        private void offer(int place, double d) {
+            int i = count < best.length ? count++ : best.length - 1;
+            while (i > 0 && distances[i - 1] > d) {
+                best[i] = best[i - 1];
+                distances[i] = distances[i - 1];
+                i--;
+            }
+            best[i] = place;
+            distances[i] = d;
+            if (count == best.length) {
+                bestDistance = distances[count - 1];
+            }
+        }
+
+        void visit(int lo, int hi, int depth) {
+            if (lo >= hi || visits != null && visits.remaining(lo, hi) == 0) {
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            int place = tree[mid];
+            if (place != from && (visits == null || !visits.isVisited(place))) {
+                double d = squaredChord(from, place);
+                if (d < bestDistance) {
+                    offer(place, d);
+                }
+            }
+            int axis = depth % 3;
+            double diff = coordinate(from, axis) - coordinate(place, axis);
+            if (diff < 0) {
+                visit(lo, mid, depth + 1);
+                if (diff * diff < bestDistance) {
+                    visit(mid + 1, hi, depth + 1);
+                }
+            } else {
+                visit(mid + 1, hi, depth + 1);
+                if (diff * diff < bestDistance) {
+                    visit(lo, mid, depth + 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * The places visited during one game. Not thread-safe.
+     */
+    public final class Visits {
+
+        private final BitSet visited = new BitSet(size());
+        // Fenwick tree counting the visited places per tree position
+        private final int[] counts = new int[size() + 1];
+
+        public void visit(int place) {
+            if (place < 0 || visited.get(place)) {
+                return;
+            }
+            visited.set(place);
+            for (int i = positions[place] + 1; i < counts.length; i += i & -i) {
+                counts[i]++;
+            }
+        }
+
+        public boolean isVisited(int place) {
+            return visited.get(place);
+        }
+
+        public int remaining() {
+            return size() - visited.cardinality();
+        }
+
+        // Number of places not visited in tree[lo..hi)
+        private int remaining(int lo, int hi) {
+            return (hi - lo) - (prefix(hi) - prefix(lo));
+        }
+
+        private int prefix(int end) {
+            int sum = 0;
+            for (int i = end; i > 0; i -= i & -i) {
+                sum += counts[i];
+            }
+            return sum;
+        }
+    }
+
+}
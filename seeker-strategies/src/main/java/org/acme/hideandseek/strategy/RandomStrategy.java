@@ -0,0 +1,41 @@
+package org.acme.hideandseek.strategy;
+
+import org.springframework.stereotype.Service;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Visits all the places in a random order.
+ */
+@Service
+public class RandomStrategy implements SeekerStrategy {
+
+    @Override
+    public String name() {
+        return "random";
+    }
+
+    @Override
+    public Tour start(PlaceCoordinates places, int start, RandomGenerator random) {
+        int[] order = new int[places.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        // Fisher-Yates
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        return new Tour() {
+            private int next;
+
+            @Override
+            public int next() {
+                return next < order.length ? order[next++] : -1;
+            }
+        };
+    }
+
+}
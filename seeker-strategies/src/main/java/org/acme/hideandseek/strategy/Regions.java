@@ -0,0 +1,116 @@
+package org.acme.hideandseek.strategy;
+
+import java.util.Arrays;
+
+/**
+ * Splits the places into geographical regions, one per seeker of a game.
+ * <p>
+ * Balanced spherical k-means: the places are points on the unit sphere, and each one goes to the closest centre
+ * that is not full yet (a region has at most {@code ceil(places / regions)} places), so that the seekers of a game
+ * have the same amount of work. The initial centres are picked deterministically (farthest point first), so all
+ * the seeker instances compute the same regions from the same places.
+ */
+final class Regions {
+
+    private static final int ITERATIONS = 20;
+
+    private Regions() {
+        // Avoid direct instantiation
+    }
+
+    /**
+     * @param x     the coordinates of the places on the unit sphere
+     * @param y     the coordinates of the places on the unit sphere
+     * @param z     the coordinates of the places on the unit sphere
+     * @param count the number of regions
+     * @return the region of each place
+     */
+    static int[] partition(double[] x, double[] y, double[] z, int count) {
+        int size = x.length;
+        int[] regions = new int[size];
+        count = Math.min(count, size);
+        if (count <= 1) {
+            return regions;
+        }
+
+        double[] cx = new double[count];
+        double[] cy = new double[count];
+        double[] cz = new double[count];
+        // Similarity (dot product) to the closest centre picked so far
+        double[] closest = new double[size];
+        Arrays.fill(closest, -2);
+        int next = 0;
+        for (int c = 0; c < count; c++) {
+            cx[c] = x[next];
+            cy[c] = y[next];
+            cz[c] = z[next];
+            int farthest = 0;
+            for (int i = 0; i < size; i++) {
+                closest[i] = Math.max(closest[i], x[i] * cx[c] + y[i] * cy[c] + z[i] * cz[c]);
+                if (closest[i] < closest[farthest]) {
+                    farthest = i;
+                }
+            }
+            next = farthest;
+        }
+
+        Arrays.fill(regions, -1);
+        for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+            boolean changed = assign(x, y, z, cx, cy, cz, regions);
+            if (!changed) {
+                break;
+            }
+            double[] sx = new double[count];
+            double[] sy = new double[count];
+            double[] sz = new double[count];
+            for (int i = 0; i < size; i++) {
+                sx[regions[i]] += x[i];
+                sy[regions[i]] += y[i];
+                sz[regions[i]] += z[i];
+            }
+            for (int c = 0; c < count; c++) {
+                double norm = Math.sqrt(sx[c] * sx[c] + sy[c] * sy[c] + sz[c] * sz[c]);
+                // An empty region keeps its centre
+                if (norm > 0) {
+                    cx[c] = sx[c] / norm;
+                    cy[c] = sy[c] / norm;
+                    cz[c] = sz[c] / norm;
+                }
+            }
+        }
+        return regions;
+    }
+
+    // Gives each place to its most similar centre with room left, the most similar pairs first
+    private static boolean assign(double[] x, double[] y, double[] z, double[] cx, double[] cy, double[] cz,
+                                  int[] regions) {
+        int size = x.length;
+        int count = cx.length;
+        int capacity = (size + count - 1) / count;
+        double[] similarities = new double[size * count];
+        Integer[] pairs = new Integer[size * count];
+        for (int i = 0; i < size; i++) {
+            for (int c = 0; c < count; c++) {
+                similarities[i * count + c] = x[i] * cx[c] + y[i] * cy[c] + z[i] * cz[c];
+                pairs[i * count + c] = i * count + c;
+            }
+        }
+        Arrays.sort(pairs, (a, b) -> Double.compare(similarities[b], similarities[a]));
+
+        int[] assigned = new int[size];
+        Arrays.fill(assigned, -1);
+        int[] load = new int[count];
+        for (int pair : pairs) {
+            int i = pair / count;
+            int c = pair % count;
+            if (assigned[i] < 0 && load[c] < capacity) {
+                assigned[i] = c;
+                load[c]++;
+            }
+        }
+        boolean changed = !Arrays.equals(assigned, regions);
+        System.arraycopy(assigned, 0, regions, 0, size);
+        return changed;
+    }
+
+}
@@ -0,0 +1,197 @@
+package org.acme.hideandseek.strategy;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+
+/**
+ * Plans a short tour over all the places: nearest-neighbour construction, then 2-opt improvements until no move
+ * shortens the tour or {@code hide-and-seek.seeker.route.time-budget} is spent.
+ * <p>
+ * The construction and the neighbour lists of 2-opt (each place is only connected to one of its closest places)
+ * are looked up in the {@link PlaceIndex}, so planning does not compute all the distances between the places. The
+ * neighbour lists are computed in parallel above {@code hide-and-seek.seeker.route.parallel-threshold} places.
+ */
+@Service
+public class RoutePlanner {
+
+    private final static Logger LOGGER = Logger.getLogger("RoutePlanner");
+    private static final double EPSILON = 1e-9;
+    private static final int NEIGHBOURS = 12;
+
+    @ConfigProperty(name = "hide-and-seek.seeker.route.time-budget", defaultValue = "200ms")
+    Duration timeBudget;
+
+    @ConfigProperty(name = "hide-and-seek.seeker.route.parallel-threshold", defaultValue = "500")
+    int parallelThreshold;
+
+    /**
+     * @param places the places
+     * @param start  the index of the current position of the seeker, -1 if it is not a known place
+     * @return the indexes of all the places in visit order, starting with {@code start} if it is a known place
+     */
+    int[] plan(PlaceCoordinates places, int start) {
+        long deadline = System.nanoTime() + timeBudget.toNanos();
+        int[] tour = nearestNeighbour(places, Math.max(start, 0), deadline);
+        double before = length(places, tour);
+        int moves = improve(places, tour, deadline);
+        LOGGER.infof("Planned a route over %d places: %.1fkm (%.1fkm before %d 2-opt moves)",
+                tour.length, length(places, tour), before, moves);
+        return tour;
+    }
+
+    /**
+     * Goes to the closest place not visited yet. Past the deadline, the remaining places are appended in index
+     * order, 2-opt then has no time left either.
+     */
+    private static int[] nearestNeighbour(PlaceCoordinates places, int start, long deadline) {
+        int size = places.size();
+        int[] tour = new int[size];
+        if (size == 0) {
+            return tour;
+        }
+        PlaceIndex index = places.index();
+        PlaceIndex.Visits visits = index.newVisits();
+        tour[0] = start;
+        visits.visit(start);
+        int step = 1;
+        for (; step < size; step++) {
+            if ((step & 0xFF) == 0 && System.nanoTime() > deadline) {
+                LOGGER.warnf("No time left to plan the route over %d places, visiting the last %d in any order",
+                        size, size - step);
+                break;
+            }
+            tour[step] = index.nearestUnvisited(tour[step - 1], visits);
+            visits.visit(tour[step]);
+        }
+        for (int place = 0; step < size; place++) {
+            if (!visits.isVisited(place)) {
+                tour[step++] = place;
+            }
+        }
+        return tour;
+    }
+
+    /**
+     * Applies improving 2-opt moves until none is left or the deadline is reached. The tour is open (the seeker
+     * does not come back) and its first place is fixed.
+     * <p>
+     * Reversing {@code tour[i..k]} replaces the edges {@code (a, b) = (i-1, i)} and {@code (c, d) = (k, k+1)} with
+     * {@code (a, c)} and {@code (b, d)}. It can only help if {@code (a, c)} is shorter than {@code (a, b)}, or
+     * {@code (b, d)} shorter than {@code (c, d)}. So for each edge of the tour, only the neighbours of its ends are
+     * tried.
+     *
+     * @return the number of moves applied
+     */
+    int improve(PlaceCoordinates places, int[] tour, long deadline) {
+        int size = tour.length;
+        if (size < 3) {
+            return 0;
+        }
+        int[][] neighbours = neighbours(places, NEIGHBOURS);
+        int[] position = new int[size];
+        for (int i = 0; i < size; i++) {
+            position[tour[i]] = i;
+        }
+
+        int moves = 0;
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int e = 1; e < size; e++) {
+                if ((e & 0xFF) == 0 && System.nanoTime() > deadline) {
+                    return moves;
+                }
+                if (tryMoves(places, tour, position, neighbours, e)) {
+                    moves++;
+                    improved = true;
+                }
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Tries the moves removing the edge {@code (e-1, e)}, and applies the first improving one.
+     *
+     * @return {@code true} if a move was applied
+     */
+    private static boolean tryMoves(PlaceCoordinates places, int[] tour, int[] position, int[][] neighbours, int e) {
+        int from = tour[e - 1];
+        int to = tour[e];
+        double length = places.distance(from, to);
+
+        // As (a, b): connect a to a closer c, further in the tour
+        for (int c : neighbours[from]) {
+            if (places.distance(from, c) >= length) {
+                // The neighbours are sorted, the next ones are even further
+                break;
+            }
+            int k = position[c];
+            if (k > e && gain(places, tour, e, k) > EPSILON) {
+                reverse(tour, position, e, k);
+                return true;
+            }
+        }
+        // As (c, d): connect d to a closer b, earlier in the tour
+        for (int b : neighbours[to]) {
+            if (places.distance(to, b) >= length) {
+                break;
+            }
+            int i = position[b];
+            if (i >= 1 && i < e - 1 && gain(places, tour, i, e - 1) > EPSILON) {
+                reverse(tour, position, i, e - 1);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double gain(PlaceCoordinates places, int[] tour, int i, int k) {
+        int a = tour[i - 1];
+        int b = tour[i];
+        int c = tour[k];
+        double gain = places.distance(a, b) - places.distance(a, c);
+        if (k + 1 < tour.length) {
+            int d = tour[k + 1];
+            gain += places.distance(c, d) - places.distance(b, d);
+        }
+        return gain;
+    }
+
+    /**
+     * @return for each place, the {@code count} closest places (fewer if there are not enough), closest first
+     */
+    private int[][] neighbours(PlaceCoordinates places, int count) {
+        PlaceIndex index = places.index();
+        IntStream indexes = IntStream.range(0, places.size());
+        if (places.size() >= parallelThreshold) {
+            indexes = indexes.parallel();
+        }
+        return indexes.mapToObj(i -> index.nearest(i, count)).toArray(int[][]::new);
+    }
+
+    private static void reverse(int[] tour, int[] position, int i, int k) {
+        while (i < k) {
+            int tmp = tour[i];
+            tour[i] = tour[k];
+            tour[k] = tmp;
+            position[tour[i]] = i;
+            position[tour[k]] = k;
+            i++;
+            k--;
+        }
+    }
+
+    private static double length(PlaceCoordinates places, int[] tour) {
+        double length = 0;
+        for (int i = 1; i < tour.length; i++) {
+            length += places.distance(tour[i - 1], tour[i]);
+        }
+        return length;
+    }
+
+}
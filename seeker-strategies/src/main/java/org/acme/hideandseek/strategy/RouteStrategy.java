@@ -0,0 +1,64 @@
+package org.acme.hideandseek.strategy;
+
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.random.RandomGenerator;
+
+/**
+ * Follows the short tour computed by the {@link RoutePlanner}.
+ * <p>
+ * The tour only depends on the places and on the starting position, so the last one computed for each set of
+ * places (all the places, or a region) is reused until the starting position changes. Each set of places is planned
+ * under its own lock, so the seekers of the other regions do not wait.
+ */
+@Service
+public class RouteStrategy implements SeekerStrategy {
+
+    private final RoutePlanner planner;
+    // Dropped with the places
+    private final Map<PlaceCoordinates, Plans> plans = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public RouteStrategy(RoutePlanner planner) {
+        this.planner = planner;
+    }
+
+    @Override
+    public String name() {
+        return "route";
+    }
+
+    @Override
+    public Tour start(PlaceCoordinates places, int start, RandomGenerator random) {
+        int[] tour = plan(places, start);
+        return new Tour() {
+            private int next;
+
+            @Override
+            public int next() {
+                return next < tour.length ? tour[next++] : -1;
+            }
+        };
+    }
+
+    private int[] plan(PlaceCoordinates places, int start) {
+        return plans.computeIfAbsent(places, p -> new Plans()).get(places, start);
+    }
+
+    // The last tour planned for a set of places, it must not reference them so they can be dropped
+    private final class Plans {
+        private int start;
+        private int[] tour;
+
+        synchronized int[] get(PlaceCoordinates places, int start) {
+            if (tour == null || this.start != start) {
+                this.tour = planner.plan(places, start);
+                this.start = start;
+            }
+            return tour;
+        }
+    }
+
+}
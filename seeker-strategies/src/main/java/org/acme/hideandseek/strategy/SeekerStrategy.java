@@ -0,0 +1,40 @@
+package org.acme.hideandseek.strategy;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Decides in which order the seeker visits the places.
+ * <p>
+ * Implementations are beans, selected by their {@link #name()} with {@code hide-and-seek.seeker.strategy}. The ones
+ * of this module only rely on the {@link PlaceCoordinates}, so they are shared by the seeker, the super seeker and
+ * the seeker simulator, which plays them without Redis.
+ */
+public interface SeekerStrategy {
+
+    /**
+     * @return the name of the strategy, as used in the configuration
+     */
+    String name();
+
+    /**
+     * Starts a game.
+     *
+     * @param places the places
+     * @param start  the index of the position of the seeker when the game starts, -1 if it is not a known place
+     * @param random the source of randomness of the game
+     * @return the destinations of the seeker for this game
+     */
+    Tour start(PlaceCoordinates places, int start, RandomGenerator random);
+
+    /**
+     * The destinations of the seeker during one game. Not thread-safe.
+     */
+    interface Tour {
+
+        /**
+         * @return the index of the next place to go to, -1 once all the places have been visited
+         */
+        int next();
+    }
+
+}
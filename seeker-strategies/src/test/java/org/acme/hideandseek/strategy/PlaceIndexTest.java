@@ -0,0 +1,135 @@
+package org.acme.hideandseek.strategy;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+class PlaceIndexTest {
+
+    @Test
+    void testNearestUnvisitedWithoutVisits() {
+        var random = new Random(1);
+        var places = randomPlaces(random, 2_000);
+        var index = places.index();
+        var visits = index.newVisits();
+        for (int i = 0; i < 500; i++) {
+            int from = random.nextInt(places.size());
+            assertClosest(places, from, index.nearestUnvisited(from, visits), visits);
+        }
+    }
+
+    @Test
+    void testNearestUnvisitedWithVisits() {
+        var random = new Random(2);
+        var places = randomPlaces(random, 2_000);
+        var index = places.index();
+        var visits = index.newVisits();
+        // Visit the places at random, checking the search at each step
+        while (visits.remaining() > 0) {
+            int from = random.nextInt(places.size());
+            int found = index.nearestUnvisited(from, visits);
+            assertClosest(places, from, found, visits);
+            visits.visit(found);
+        }
+        Assertions.assertEquals(-1, index.nearestUnvisited(0, visits));
+    }
+
+    @Test
+    void testNearestNeighbourTour() {
+        // Visits are checked from the last visited place, like the nearest strategy
+        var places = randomPlaces(new Random(3), 1_000);
+        var index = places.index();
+        var visits = index.newVisits();
+        int current = 0;
+        visits.visit(current);
+        for (int step = 1; step < places.size(); step++) {
+            int next = index.nearestUnvisited(current, visits);
+            assertClosest(places, current, next, visits);
+            visits.visit(next);
+            current = next;
+        }
+        Assertions.assertEquals(0, visits.remaining());
+    }
+
+    @Test
+    void testNearest() {
+        var random = new Random(4);
+        var places = randomPlaces(random, 2_000);
+        var index = places.index();
+        for (int i = 0; i < 200; i++) {
+            int from = random.nextInt(places.size());
+            int[] nearest = index.nearest(from, 12);
+            int[] expected = IntStream.range(0, places.size()).filter(j -> j != from).boxed()
+                    .sorted(Comparator.comparingDouble(j -> places.distance(from, j)))
+                    .limit(12).mapToInt(Integer::intValue).toArray();
+            Assertions.assertEquals(12, nearest.length);
+            for (int k = 0; k < nearest.length; k++) {
+                // Compared by distance, the order of equidistant places is not defined
+                Assertions.assertEquals(places.distance(from, expected[k]), places.distance(from, nearest[k]), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void testSmallSets() {
+        var single = places(new double[]{2.35}, new double[]{48.85});
+        Assertions.assertEquals(-1, single.index().nearestUnvisited(0, single.index().newVisits()));
+        Assertions.assertEquals(0, single.index().nearest(0, 5).length);
+
+        var pair = places(new double[]{2.35, 12.5}, new double[]{48.85, 41.9});
+        Assertions.assertEquals(1, pair.index().nearestUnvisited(0, pair.index().newVisits()));
+        Assertions.assertArrayEquals(new int[]{0}, pair.index().nearest(1, 5));
+    }
+
+    @Test
+    void testDuplicatedCoordinates() {
+        // Several places at the same point
+        var places = places(new double[]{2.35, 2.35, 2.35, 12.5}, new double[]{48.85, 48.85, 48.85, 41.9});
+        var index = places.index();
+        var visits = index.newVisits();
+        visits.visit(0);
+        int first = index.nearestUnvisited(0, visits);
+        Assertions.assertTrue(first == 1 || first == 2);
+        visits.visit(first);
+        Assertions.assertEquals(3 - first, index.nearestUnvisited(0, visits));
+        visits.visit(3 - first);
+        Assertions.assertEquals(3, index.nearestUnvisited(0, visits));
+    }
+
+    // Brute force: no place left to visit is closer than the one found
+    private static void assertClosest(PlaceCoordinates places, int from, int found, PlaceIndex.Visits visits) {
+        Assertions.assertTrue(found >= 0 && found != from && !visits.isVisited(found), "Invalid place " + found);
+        double best = Double.MAX_VALUE;
+        for (int j = 0; j < places.size(); j++) {
+            if (j != from && !visits.isVisited(j)) {
+                best = Math.min(best, places.distance(from, j));
+            }
+        }
+        Assertions.assertEquals(best, places.distance(from, found), 1e-9);
+    }
+
+    // Around Europe
+    private static PlaceCoordinates randomPlaces(Random random, int size) {
+        double[] longitudes = new double[size];
+        double[] latitudes = new double[size];
+        for (int i = 0; i < size; i++) {
+            longitudes[i] = -10 + 40 * random.nextDouble();
+            latitudes[i] = 35 + 25 * random.nextDouble();
+        }
+        return places(longitudes, latitudes);
+    }
+
+    private static PlaceCoordinates places(double[] longitudes, double[] latitudes) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < longitudes.length; i++) {
+            names.add("place-" + i);
+        }
+        return new PlaceCoordinates(names, longitudes, latitudes, 500);
+    }
+
+}
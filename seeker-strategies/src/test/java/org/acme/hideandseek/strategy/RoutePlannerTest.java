@@ -0,0 +1,146 @@
+package org.acme.hideandseek.strategy;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+class RoutePlannerTest {
+
+    private RoutePlanner planner;
+
+    @BeforeEach
+    void init() {
+        planner = new RoutePlanner();
+        planner.timeBudget = Duration.ofSeconds(10);
+        planner.parallelThreshold = 500;
+    }
+
+    @Test
+    void testCrossedTourIsUncrossed() {
+        // The corners of a square, visited along its diagonals: A C B D
+        var places = places(new double[]{0, 0, 1, 1}, new double[]{0, 1, 1, 0});
+        int[] tour = {0, 2, 1, 3};
+        double before = length(places, tour);
+
+        Assertions.assertTrue(planner.improve(places, tour, deadline()) > 0);
+        assertVisitsAll(places, tour);
+        Assertions.assertEquals(0, tour[0]);
+        Assertions.assertTrue(length(places, tour) < before);
+        // Around the square
+        Assertions.assertEquals(3, length(places, tour) / places.distance(0, 1), 0.01);
+    }
+
+    @Test
+    void testRandomTourGetsShorter() {
+        var random = new Random(42);
+        for (int size : new int[]{300, 1_000}) {
+            var places = randomPlaces(random, size);
+            int[] tour = shuffled(random, size);
+            int first = tour[0];
+            double before = length(places, tour);
+
+            planner.improve(places, tour, deadline());
+            assertVisitsAll(places, tour);
+            Assertions.assertEquals(first, tour[0]);
+            Assertions.assertTrue(length(places, tour) < before / 2,
+                    "Not much shorter: " + length(places, tour) + " / " + before);
+        }
+    }
+
+    @Test
+    void testNoMoveImprovesThePlannedTour() {
+        var places = randomPlaces(new Random(7), 500);
+        int[] tour = planner.plan(places, 42);
+        assertVisitsAll(places, tour);
+        Assertions.assertEquals(42, tour[0]);
+
+        int[] copy = tour.clone();
+        Assertions.assertEquals(0, planner.improve(places, copy, deadline()));
+        Assertions.assertArrayEquals(tour, copy);
+    }
+
+    @Test
+    void testUnknownStart() {
+        var places = randomPlaces(new Random(3), 50);
+        assertVisitsAll(places, planner.plan(places, -1));
+    }
+
+    @Test
+    void testTimeBudgetSpent() {
+        planner.timeBudget = Duration.ZERO;
+        var places = randomPlaces(new Random(5), 2_000);
+        int[] tour = planner.plan(places, 0);
+        // Still a complete tour
+        assertVisitsAll(places, tour);
+        Assertions.assertEquals(0, tour[0]);
+    }
+
+    @Test
+    void testSmallTours() {
+        Assertions.assertEquals(0, planner.plan(places(new double[0], new double[0]), -1).length);
+        Assertions.assertArrayEquals(new int[]{0}, planner.plan(places(new double[]{2}, new double[]{48}), 0));
+        int[] tour = planner.plan(places(new double[]{2, 12}, new double[]{48, 41}), 1);
+        Assertions.assertArrayEquals(new int[]{1, 0}, tour);
+    }
+
+    private static long deadline() {
+        return System.nanoTime() + Duration.ofSeconds(10).toNanos();
+    }
+
+    private static void assertVisitsAll(PlaceCoordinates places, int[] tour) {
+        int[] sorted = tour.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < places.size(); i++) {
+            Assertions.assertEquals(i, sorted[i], "Each place must be visited exactly once");
+        }
+        Assertions.assertEquals(places.size(), tour.length);
+    }
+
+    private static double length(PlaceCoordinates places, int[] tour) {
+        double length = 0;
+        for (int i = 1; i < tour.length; i++) {
+            length += places.distance(tour[i - 1], tour[i]);
+        }
+        return length;
+    }
+
+    private static int[] shuffled(Random random, int size) {
+        int[] tour = new int[size];
+        for (int i = 0; i < size; i++) {
+            tour[i] = i;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = tour[i];
+            tour[i] = tour[j];
+            tour[j] = tmp;
+        }
+        return tour;
+    }
+
+    // Around Europe
+    private static PlaceCoordinates randomPlaces(Random random, int size) {
+        double[] longitudes = new double[size];
+        double[] latitudes = new double[size];
+        for (int i = 0; i < size; i++) {
+            longitudes[i] = -10 + 40 * random.nextDouble();
+            latitudes[i] = 35 + 25 * random.nextDouble();
+        }
+        return places(longitudes, latitudes);
+    }
+
+    private static PlaceCoordinates places(double[] longitudes, double[] latitudes) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < longitudes.length; i++) {
+            names.add("place-" + i);
+        }
+        return new PlaceCoordinates(names, longitudes, latitudes, 500);
+    }
+
+}
@@ -1,5 +0,0 @@
-package org.acme.hideandseek.model;
-
-public record Player(String name, int speed) {
-
-}
@@ -0,0 +1,265 @@
+package org.acme.hideandseek.superseeker;
+
+import io.quarkus.redis.datasource.RedisDataSource;
+import io.quarkus.runtime.Startup;
+import org.acme.hideandseek.seeker.PlaceCache;
+import org.acme.hideandseek.strategy.PlaceCoordinates;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.Readiness;
+import org.jboss.logging.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * When the next hops are picked by querying Redis ({@code hide-and-seek.seeker.strategy=graph}, see
+ * {@link GraphStrategy}), builds the graph of the places ({@code hide-and-seek:graph}) from the places of the
+ * {@link PlaceCache}.
+ * <p>
+ * The distances are computed locally (same formula as {@code GEODIST}), and nodes and edges are created with
+ * {@code UNWIND} queries of {@code hide-and-seek.graph.batch-size} items. A checksum of the place set is stored next
+ * to the graph: when it matches, the graph is kept as is. The building runs in the background, the service is not
+ * ready until it is done.
+ * <p>
+ * Only one replica builds the graph at a time: it holds {@code hide-and-seek:graph:lock} ({@code SET NX PX}), builds
+ * the graph under a key of its own, then renames it to {@code hide-and-seek:graph} along with the checksum. The other
+ * replicas wait for the checksum to match. If the lock expires during a long build, two replicas may build the
+ * graph, but the rename means the readers only ever see a complete graph.
+ * <p>
+ * Each place only gets edges to its {@code hide-and-seek.graph.neighbours} closest places (k-NN graph), so the
+ * graph grows linearly with the number of places. Set it to 0 to link every pair of places.
+ */
+@Startup
+@Readiness
+public class GraphLoader implements HealthCheck, Runnable {
+
+    public static final String GRAPH_KEY = "hide-and-seek:graph";
+    public static final String CHECKSUM_KEY = "hide-and-seek:graph:checksum";
+    public static final String LOCK_KEY = "hide-and-seek:graph:lock";
+    private static final String RELEASE = """
+            if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end
+            """;
+    // Bump when the graph layout changes, so existing graphs are rebuilt
+    private static final String LAYOUT = "v1";
+    private static final int DEFAULT_NEIGHBOURS = 16;
+    private final static Logger LOGGER = Logger.getLogger("GraphLoader");
+
+    private final RedisDataSource redis;
+    private final PlaceCache places;
+    private final int batchSize;
+    private final int neighbours;
+    private final Duration lockDuration;
+    private final CountDownLatch loaded = new CountDownLatch(1);
+    private volatile PlaceCoordinates coordinates;
+
+    public GraphLoader(RedisDataSource redis, PlaceCache places,
+                       @ConfigProperty(name = "hide-and-seek.graph.batch-size", defaultValue = "1000")
+                       int batchSize,
+                       @ConfigProperty(name = "hide-and-seek.seeker.strategy", defaultValue = "random")
+                       String strategy,
+                       @ConfigProperty(name = "hide-and-seek.graph.neighbours", defaultValue = "16")
+                       int neighbours,
+                       @ConfigProperty(name = "hide-and-seek.graph.lock-duration", defaultValue = "5m")
+                       Duration lockDuration) {
+        this.redis = redis;
+        this.places = places;
+        this.batchSize = batchSize;
+        this.neighbours = neighbours;
+        this.lockDuration = lockDuration;
+        if ("graph".equals(strategy)) {
+            Thread.ofVirtual().start(this);
+        } else {
+            // Nothing to build
+            loaded.countDown();
+        }
+    }
+
+    @Override
+    public HealthCheckResponse call() {
+        return HealthCheckResponse.named("graph").status(loaded.getCount() == 0).build();
+    }
+
+    /**
+     * Blocks until the graph is loaded.
+     */
+    void awaitLoaded() throws InterruptedException {
+        loaded.await();
+    }
+
+    /**
+     * @return {@code true} if the graph only links each place to its closest places
+     */
+    boolean isPruned() {
+        return neighbours > 0;
+    }
+
+    /**
+     * @return the number of closest neighbours worth asking the graph for
+     */
+    int neighbours() {
+        return isPruned() ? neighbours : DEFAULT_NEIGHBOURS;
+    }
+
+    /**
+     * @return the places of the graph, {@code null} until built
+     */
+    PlaceCoordinates coordinates() {
+        return coordinates;
+    }
+
+    public void run() {
+        while (true) {
+            long retry;
+            try {
+                PlaceCoordinates current = places.current();
+                if (buildGraph(current)) {
+                    coordinates = current;
+                    loaded.countDown();
+                    return;
+                }
+                retry = 1_000;
+            } catch (Exception e) {
+                LOGGER.errorf(e, "Unable to load the graph, retrying");
+                retry = 5_000;
+            }
+            try {
+                Thread.sleep(retry);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return {@code false} if another replica is building the graph
+     */
+    private boolean buildGraph(PlaceCoordinates places) {
+        String checksum = checksum(places, neighbours);
+        if (isUpToDate(checksum)) {
+            LOGGER.infof("The graph of the %d places is up to date", places.size());
+            return true;
+        }
+        String owner = UUID.randomUUID().toString();
+        if (redis.execute("SET", LOCK_KEY, owner, "NX", "PX", Long.toString(lockDuration.toMillis())) == null) {
+            LOGGER.infof("Another replica is building the graph, waiting");
+            return false;
+        }
+        try {
+            // Built by another replica while waiting for the lock
+            if (isUpToDate(checksum)) {
+                LOGGER.infof("The graph of the %d places is up to date", places.size());
+                return true;
+            }
+            String building = GRAPH_KEY + ":" + owner;
+            try {
+                buildGraph(places, building);
+            } catch (RuntimeException e) {
+                redis.key().del(building);
+                throw e;
+            }
+            redis.withTransaction(tx -> {
+                tx.key().rename(building, GRAPH_KEY);
+                tx.value(String.class).set(CHECKSUM_KEY, checksum);
+            });
+            return true;
+        } finally {
+            redis.execute("EVAL", RELEASE, "1", LOCK_KEY, owner);
+        }
+    }
+
+    private boolean isUpToDate(String checksum) {
+        return checksum.equals(redis.value(String.class).get(CHECKSUM_KEY)) && redis.key().exists(GRAPH_KEY);
+    }
+
+    private void buildGraph(PlaceCoordinates places, String key) {
+        long begin = System.currentTimeMillis();
+        List<String> nodes = new ArrayList<>(batchSize);
+        for (String place : places.names()) {
+            nodes.add(quote(place));
+            if (nodes.size() == batchSize) {
+                createNodes(key, nodes);
+            }
+        }
+        createNodes(key, nodes);
+        redis.graph().graphQuery(key, "CREATE INDEX ON :Place(name)");
+
+        int size = places.size();
+        List<String> edges = new ArrayList<>(batchSize);
+        long count = 0;
+        for (int i = 0; i < size; i++) {
+            for (int j : targets(places, i)) {
+                double distance = places.distance(i, j);
+                edges.add("[" + quote(places.name(i)) + "," + quote(places.name(j)) + "," + distance + "]");
+                count++;
+                if (edges.size() == batchSize) {
+                    createEdges(key, edges);
+                }
+            }
+        }
+        createEdges(key, edges);
+
+        LOGGER.infof("Built the graph of %d places and %d edges in %dms", size, count,
+                System.currentTimeMillis() - begin);
+    }
+
+    private int[] targets(PlaceCoordinates places, int from) {
+        if (isPruned()) {
+            return places.index().nearest(from, neighbours);
+        }
+        int[] all = new int[places.size() - 1];
+        for (int i = 0, j = 0; i < places.size(); i++) {
+            if (i != from) {
+                all[j++] = i;
+            }
+        }
+        return all;
+    }
+
+    private void createNodes(String key, List<String> nodes) {
+        if (nodes.isEmpty()) {
+            return;
+        }
+        redis.graph().graphQuery(key, "CYPHER names=[" + String.join(",", nodes) + "] "
+                + "UNWIND $names AS name CREATE (:Place {name: name})");
+        nodes.clear();
+    }
+
+    private void createEdges(String key, List<String> edges) {
+        if (edges.isEmpty()) {
+            return;
+        }
+        redis.graph().graphQuery(key, "CYPHER edges=[" + String.join(",", edges) + "] "
+                + "UNWIND $edges AS e MATCH (a:Place {name: e[0]}), (b:Place {name: e[1]}) "
+                + "CREATE (a)-[:travel {distance: e[2]}]->(b)");
+        edges.clear();
+    }
+
+    private static String checksum(PlaceCoordinates places, int neighbours) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((LAYOUT + "|" + neighbours + "\n").getBytes(StandardCharsets.UTF_8));
+            for (int i = 0; i < places.size(); i++) {
+                digest.update((places.name(i) + "|" + places.longitude(i) + "|" + places.latitude(i) + "\n")
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String quote(String value) {
+        return "'" + value.replace("\\", "\\\\").replace("'", "\\'") + "'";
+    }
+
+}
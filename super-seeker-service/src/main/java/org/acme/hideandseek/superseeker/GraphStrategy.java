@@ -0,0 +1,96 @@
+package org.acme.hideandseek.superseeker;
+
+import io.quarkus.redis.datasource.RedisDataSource;
+import io.quarkus.redis.datasource.graph.GraphQueryResponseItem;
+import org.acme.hideandseek.strategy.NearestStrategy;
+import org.acme.hideandseek.strategy.PlaceCoordinates;
+import org.acme.hideandseek.strategy.PlaceIndex;
+import org.acme.hideandseek.strategy.SeekerStrategy;
+import org.jboss.logging.Logger;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Goes to the closest place not visited yet, like {@code nearest}, but asks the Redis graph built by the
+ * {@link GraphLoader} for it. The query only returns the closest neighbours, the visited ones are skipped with the
+ * {@link PlaceIndex.Visits}: when they have all been visited, the {@link PlaceIndex} is used to look further.
+ * <p>
+ * The graph holds all the places it was built from: when the seeker only searches a region, or the places changed
+ * since, the strategy plays {@code nearest}.
+ */
+@Service
+public class GraphStrategy implements SeekerStrategy {
+
+    // The place is a parameter (CYPHER name=...), so the query itself is the same for every hop
+    public static final String QUERY = """
+            MATCH (:Place {name: $name})-[r]->(m) RETURN m.name AS place ORDER BY r.distance ASC LIMIT %d
+            """;
+
+    private final static Logger LOGGER = Logger.getLogger("GraphStrategy");
+
+    private final RedisDataSource redis;
+    private final GraphLoader graph;
+    private final NearestStrategy nearest;
+
+    public GraphStrategy(RedisDataSource redis, GraphLoader graph, NearestStrategy nearest) {
+        this.redis = redis;
+        this.graph = graph;
+        this.nearest = nearest;
+    }
+
+    @Override
+    public String name() {
+        return "graph";
+    }
+
+    @Override
+    public Tour start(PlaceCoordinates places, int start, RandomGenerator random) {
+        try {
+            graph.awaitLoaded();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return nearest.start(places, start, random);
+        }
+        PlaceCoordinates graphPlaces = graph.coordinates();
+        if (graphPlaces == null || places.size() == 0 || !places.names().equals(graphPlaces.names())) {
+            return nearest.start(places, start, random);
+        }
+        int first = start >= 0 ? start : random.nextInt(places.size());
+        PlaceIndex index = places.index();
+        String query = QUERY.formatted(graph.neighbours());
+        return new Tour() {
+            private final PlaceIndex.Visits visits = index.newVisits();
+            private int position = first;
+
+            @Override
+            public int next() {
+                int next = visits.isVisited(position) ? query() : position;
+                if (next >= 0) {
+                    visits.visit(next);
+                    position = next;
+                }
+                return next;
+            }
+
+            private int query() {
+                String q = "CYPHER name=" + GraphLoader.quote(places.name(position)) + " " + query;
+                LOGGER.debugf("Seeker query: %s", q);
+                List<Map<String, GraphQueryResponseItem>> neighbours =
+                        redis.graph().graphQuery(GraphLoader.GRAPH_KEY, q);
+                // Sorted by distance, so the first one not visited is the closest
+                for (var neighbour : neighbours) {
+                    int next = places.indexOf(neighbour.get("place").asScalarItem().asString());
+                    if (next >= 0 && !visits.isVisited(next)) {
+                        return next;
+                    }
+                }
+                // All the neighbours have been visited, widen the search
+                return index.nearestUnvisited(position, visits);
+            }
+        };
+    }
+
+}
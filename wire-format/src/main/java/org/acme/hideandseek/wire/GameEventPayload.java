@@ -0,0 +1,103 @@
+package org.acme.hideandseek.wire;
+
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+
+/**
+ * The fields of a game event published on {@code hide-and-seek/events}, and their binary layout. Each service maps
+ * them to its own {@code GameEvent}.
+ * <p>
+ * The optional fields are written after a byte of flags telling which ones are present, so a reader can stop before
+ * the ones it does not know.
+ *
+ * @param kind the name of the event kind, {@code null} if the type code is unknown
+ */
+public record GameEventPayload(String kind, String gameId, String seeker, String hider, String place,
+                               String destination, Map<String, String> hiders, OptionalDouble distance,
+                               OptionalLong duration, OptionalInt nonDiscoveredPlayers,
+                               Map<String, String> discoverers) {
+
+    // The type code of each kind is its index + 1: only append
+    private static final List<String> KINDS = List.of("NEW_GAME", "GAME_OVER", "PLAYER_DISCOVERED",
+            "PLAYERS_DISCOVERED", "SEEKER_MOVE", "PING");
+
+    // Presence of the optional fields
+    private static final int DISTANCE = 1;
+    private static final int DURATION = 2;
+    private static final int NON_DISCOVERED_PLAYERS = 4;
+    private static final int DISCOVERERS = 8;
+
+    public byte[] encode() {
+        int type = KINDS.indexOf(kind) + 1;
+        if (type == 0) {
+            throw new IllegalArgumentException("Unknown game event kind " + kind);
+        }
+        int flags = (distance.isPresent() ? DISTANCE : 0)
+                | (duration.isPresent() ? DURATION : 0)
+                | (nonDiscoveredPlayers.isPresent() ? NON_DISCOVERED_PLAYERS : 0)
+                | (discoverers != null ? DISCOVERERS : 0);
+        var writer = new WireFormat.Writer((byte) type)
+                .writeString(gameId)
+                .writeString(seeker)
+                .writeString(hider)
+                .writeString(place)
+                .writeString(destination)
+                .writeMap(hiders)
+                .writeByte(flags);
+        if (distance.isPresent()) {
+            writer.writeDouble(distance.getAsDouble());
+        }
+        if (duration.isPresent()) {
+            writer.writeLong(duration.getAsLong());
+        }
+        if (nonDiscoveredPlayers.isPresent()) {
+            writer.writeLong(nonDiscoveredPlayers.getAsInt());
+        }
+        if (discoverers != null) {
+            writer.writeMap(discoverers);
+        }
+        return writer.toByteArray();
+    }
+
+    /**
+     * @param payload a binary payload, see {@link WireFormat#isBinary(byte[])}
+     */
+    public static GameEventPayload decode(byte[] payload) {
+        var reader = new WireFormat.Reader(payload);
+        int type = reader.readType();
+        String kind = type > 0 && type <= KINDS.size() ? KINDS.get(type - 1) : null;
+        String gameId = reader.readString();
+        String seeker = reader.readString();
+        String hider = reader.readString();
+        String place = reader.readString();
+        String destination = reader.readString();
+        Map<String, String> hiders = reader.readMap();
+        int flags = reader.readByte();
+        OptionalDouble distance = (flags & DISTANCE) != 0
+                ? OptionalDouble.of(reader.readDouble()) : OptionalDouble.empty();
+        OptionalLong duration = (flags & DURATION) != 0
+                ? OptionalLong.of(reader.readLong()) : OptionalLong.empty();
+        OptionalInt nonDiscoveredPlayers = (flags & NON_DISCOVERED_PLAYERS) != 0
+                ? OptionalInt.of(reader.readInt()) : OptionalInt.empty();
+        Map<String, String> discoverers = (flags & DISCOVERERS) != 0 ? reader.readMap() : null;
+        return new GameEventPayload(kind, gameId, seeker, hider, place, destination, hiders, distance, duration,
+                nonDiscoveredPlayers, discoverers);
+    }
+
+    /**
+     * @param kinds the enum of the event kinds known by the service
+     * @return the kind of the event, {@code null} if the service does not know it
+     */
+    public <E extends Enum<E>> E kind(Class<E> kinds) {
+        for (E constant : kinds.getEnumConstants()) {
+            if (constant.name().equals(kind)) {
+                return constant;
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,174 @@
+package org.acme.hideandseek.wire;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The compact binary encoding of the events, written and read by the game, seeker, leaderboard and monitoring
+ * services.
+ * <p>
+ * A payload starts with a version byte, then a type byte, then the fields in a fixed order: strings and maps are
+ * prefixed by their length + 1 (0 means {@code null}), integers are zig-zag varints, doubles are 8 bytes. JSON
+ * payloads always start with {@code '{'}, so both encodings can be read during a rollout.
+ */
+public final class WireFormat {
+
+    public static final byte VERSION = 1;
+
+    private WireFormat() {
+        // Avoid direct instantiation
+    }
+
+    /**
+     * @return {@code true} if the payload uses the binary encoding, {@code false} if it is JSON
+     */
+    public static boolean isBinary(byte[] payload) {
+        return payload.length > 0 && payload[0] == VERSION;
+    }
+
+    public static final class Writer {
+
+        private byte[] buffer = new byte[64];
+        private int size;
+
+        public Writer(byte type) {
+            writeByte(VERSION);
+            writeByte(type);
+        }
+
+        public Writer writeByte(int b) {
+            ensure(1);
+            buffer[size++] = (byte) b;
+            return this;
+        }
+
+        public Writer writeLong(long value) {
+            long v = (value << 1) ^ (value >> 63);
+            while ((v & ~0x7FL) != 0) {
+                writeByte((int) ((v & 0x7F) | 0x80));
+                v >>>= 7;
+            }
+            return writeByte((int) v);
+        }
+
+        public Writer writeDouble(double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            ensure(8);
+            for (int i = 7; i >= 0; i--) {
+                buffer[size++] = (byte) (bits >>> (i * 8));
+            }
+            return this;
+        }
+
+        public Writer writeString(String value) {
+            if (value == null) {
+                return writeLong(0);
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeLong(bytes.length + 1);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+            return this;
+        }
+
+        public Writer writeMap(Map<String, String> map) {
+            if (map == null) {
+                return writeLong(0);
+            }
+            writeLong(map.size() + 1);
+            map.forEach((k, v) -> writeString(k).writeString(v));
+            return this;
+        }
+
+        public byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensure(int length) {
+            if (size + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + length));
+            }
+        }
+    }
+
+    public static final class Reader {
+
+        private final byte[] buffer;
+        private int position;
+
+        public Reader(byte[] payload) {
+            if (payload.length < 2) {
+                throw new IllegalArgumentException("Truncated payload (" + payload.length + " bytes)");
+            }
+            if (!isBinary(payload)) {
+                throw new IllegalArgumentException("Not a binary payload (version " + payload[0] + ")");
+            }
+            this.buffer = payload;
+            this.position = 1;
+        }
+
+        public byte readType() {
+            return readByte();
+        }
+
+        public byte readByte() {
+            if (position >= buffer.length) {
+                throw new IllegalArgumentException("Truncated payload");
+            }
+            return buffer[position++];
+        }
+
+        public long readLong() {
+            long v = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = readByte();
+                v |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        public int readInt() {
+            return (int) readLong();
+        }
+
+        public double readDouble() {
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits = (bits << 8) | (readByte() & 0xFF);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        public String readString() {
+            int length = readInt() - 1;
+            if (length < 0) {
+                return null;
+            }
+            if (position + length > buffer.length) {
+                throw new IllegalArgumentException("Truncated payload");
+            }
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        public Map<String, String> readMap() {
+            int entries = readInt() - 1;
+            if (entries < 0) {
+                return null;
+            }
+            Map<String, String> map = new HashMap<>();
+            for (int i = 0; i < entries; i++) {
+                map.put(readString(), readString());
+            }
+            return map;
+        }
+    }
+
+}
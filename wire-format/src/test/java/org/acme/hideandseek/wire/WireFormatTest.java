@@ -0,0 +1,68 @@
+package org.acme.hideandseek.wire;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+
+class WireFormatTest {
+
+    enum Kind {
+        NEW_GAME,
+        GAME_OVER
+    }
+
+    @Test
+    void testRoundTrip() {
+        byte[] payload = new WireFormat.Writer((byte) 5).writeString("Zürich").writeString(null)
+                .writeLong(-3).writeLong(123_456_789_012L).writeDouble(1105.6)
+                .writeMap(Map.of("roxanne", "Paris")).writeMap(null)
+                .toByteArray();
+        Assertions.assertTrue(WireFormat.isBinary(payload));
+        var reader = new WireFormat.Reader(payload);
+        Assertions.assertEquals(5, reader.readType());
+        Assertions.assertEquals("Zürich", reader.readString());
+        Assertions.assertNull(reader.readString());
+        Assertions.assertEquals(-3, reader.readLong());
+        Assertions.assertEquals(123_456_789_012L, reader.readLong());
+        Assertions.assertEquals(1105.6, reader.readDouble());
+        Assertions.assertEquals(Map.of("roxanne", "Paris"), reader.readMap());
+        Assertions.assertNull(reader.readMap());
+        Assertions.assertThrows(IllegalArgumentException.class, reader::readByte);
+    }
+
+    @Test
+    void testInvalidPayloads() {
+        Assertions.assertFalse(WireFormat.isBinary(new byte[0]));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new WireFormat.Reader(new byte[0]));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new WireFormat.Reader(new byte[]{WireFormat.VERSION}));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new WireFormat.Reader("{}".getBytes()));
+        byte[] truncated = new WireFormat.Writer((byte) 1).writeString("clement").toByteArray();
+        var reader = new WireFormat.Reader(Arrays.copyOf(truncated, truncated.length - 1));
+        reader.readType();
+        Assertions.assertThrows(IllegalArgumentException.class, reader::readString);
+    }
+
+    @Test
+    void testGameEventPayload() {
+        var over = new GameEventPayload("GAME_OVER", "g", "clement", null, null, null, Map.of("roxanne", "Paris"),
+                OptionalDouble.empty(), OptionalLong.of(42_000), OptionalInt.of(0), Map.of("roxanne", "clement"));
+        var decoded = GameEventPayload.decode(over.encode());
+        Assertions.assertEquals(over, decoded);
+        Assertions.assertEquals(Kind.GAME_OVER, decoded.kind(Kind.class));
+
+        // Kinds unknown by the reader are null
+        var ping = new GameEventPayload("PING", null, null, null, null, null, null, OptionalDouble.empty(),
+                OptionalLong.empty(), OptionalInt.empty(), null);
+        Assertions.assertNull(GameEventPayload.decode(ping.encode()).kind(Kind.class));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new GameEventPayload("HIDE", null, null,
+                null, null, null, null, OptionalDouble.empty(), OptionalLong.empty(), OptionalInt.empty(), null)
+                .encode());
+    }
+
+}